@@ -0,0 +1,120 @@
+/**
+ * 
+ */
+package io.pratik;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the list-scanning set operations of {@link CollectionHelper} with the hash-based,
+ * sorted-merge and parallel versions of {@link IntCollectionHelper}. Both inputs have
+ * {@code size} elements and overlap by about half.
+ * 
+ * The list-scanning versions are quadratic, so larger sizes like {@code -p size=1000000} are only
+ * practical when excluding them, e.g. with {@code -e list}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SetOperationsBenchmark {
+	
+	@Param({"1000", "10000", "100000"})
+	public int size;
+	
+	private final CollectionHelper collectionHelper = new CollectionHelper();
+	
+	private final IntCollectionHelper intCollectionHelper = new IntCollectionHelper();
+	
+	private List<Integer> listA;
+	
+	private List<Integer> listB;
+	
+	private int[] arrayA;
+	
+	private int[] arrayB;
+	
+	private int[] sortedA;
+	
+	private int[] sortedB;
+	
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		arrayA = random.ints(size, 0, 2 * size).toArray();
+		arrayB = random.ints(size, 0, 2 * size).toArray();
+		listA = IntStream.of(arrayA).boxed().collect(Collectors.toList());
+		listB = IntStream.of(arrayB).boxed().collect(Collectors.toList());
+		sortedA = IntStream.of(arrayA).sorted().toArray();
+		sortedB = IntStream.of(arrayB).sorted().toArray();
+	}
+	
+	@Benchmark
+	public List<Integer> listIntersection() {
+		return collectionHelper.intersection(listA, listB);
+	}
+	
+	@Benchmark
+	public int[] hashIntersection() {
+		return intCollectionHelper.intersection(arrayA, arrayB);
+	}
+	
+	@Benchmark
+	public int[] parallelHashIntersection() {
+		return intCollectionHelper.parallelIntersection(arrayA, arrayB);
+	}
+	
+	@Benchmark
+	public int[] sortedIntersection() {
+		return intCollectionHelper.sortedIntersection(sortedA, sortedB);
+	}
+	
+	@Benchmark
+	public List<Integer> listXor() {
+		return collectionHelper.xor(listA, listB);
+	}
+	
+	@Benchmark
+	public int[] hashXor() {
+		return intCollectionHelper.xor(arrayA, arrayB);
+	}
+	
+	@Benchmark
+	public int[] parallelHashXor() {
+		return intCollectionHelper.parallelXor(arrayA, arrayB);
+	}
+	
+	@Benchmark
+	public List<Integer> listNot() {
+		return collectionHelper.not(listA, listB);
+	}
+	
+	@Benchmark
+	public int[] hashNot() {
+		return intCollectionHelper.not(arrayA, arrayB);
+	}
+	
+	@Benchmark
+	public int[] sortedNot() {
+		return intCollectionHelper.sortedNot(sortedA, sortedB);
+	}
+
+}
@@ -0,0 +1,109 @@
+/**
+ * 
+ */
+package io.pratik;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Set operations of {@link CollectionHelper} specialized for primitive ints. Instead of scanning
+ * the second list for every element of the first one, the second collection is put into an
+ * {@link IntHashSet} once, so the operations take O(n + m) instead of O(n * m).
+ * 
+ * The results keep the order and the duplicates of the input like the {@link CollectionHelper}
+ * versions do. The parallel versions only pay off for inputs with hundreds of thousands of elements.
+ */
+public class IntCollectionHelper {
+	
+	public static int[] toArray(final List<Integer> list) {
+		return list.stream().mapToInt(Integer::intValue).toArray();
+	}
+	
+	public int[] intersection(final int[] collA, final int[] collB) {
+		IntHashSet setB = IntHashSet.of(collB);
+		return IntStream.of(collA)
+				.filter(setB::contains)
+				.toArray();
+	}
+	
+	public int[] parallelIntersection(final int[] collA, final int[] collB) {
+		IntHashSet setB = IntHashSet.of(collB);
+		// the set is only read from here on, so it can be shared between threads
+		return IntStream.of(collA)
+				.parallel()
+				.filter(setB::contains)
+				.toArray();
+	}
+	
+	public int[] not(final int[] collA, final int[] collB) {
+		IntHashSet setB = IntHashSet.of(collB);
+		return IntStream.of(collA)
+				.filter(element -> !setB.contains(element))
+				.toArray();
+	}
+	
+	public int[] parallelNot(final int[] collA, final int[] collB) {
+		IntHashSet setB = IntHashSet.of(collB);
+		return IntStream.of(collA)
+				.parallel()
+				.filter(element -> !setB.contains(element))
+				.toArray();
+	}
+	
+	public int[] xor(final int[] collA, final int[] collB) {
+		return concat(not(collA, collB), not(collB, collA));
+	}
+	
+	public int[] parallelXor(final int[] collA, final int[] collB) {
+		return concat(parallelNot(collA, collB), parallelNot(collB, collA));
+	}
+	
+	/**
+	 * Intersection of two arrays sorted in ascending order by merging them, without building a
+	 * hash set. Duplicates of the first array are kept.
+	 */
+	public int[] sortedIntersection(final int[] sortedA, final int[] sortedB) {
+		int[] result = new int[sortedA.length];
+		int size = 0;
+		int j = 0;
+		for (int element : sortedA) {
+			while (j < sortedB.length && sortedB[j] < element) {
+				j++;
+			}
+			if (j == sortedB.length) {
+				break;
+			}
+			if (sortedB[j] == element) {
+				result[size++] = element;
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+	
+	/**
+	 * Elements of the first sorted array that are not in the second sorted array, by merging them.
+	 */
+	public int[] sortedNot(final int[] sortedA, final int[] sortedB) {
+		int[] result = new int[sortedA.length];
+		int size = 0;
+		int j = 0;
+		for (int element : sortedA) {
+			while (j < sortedB.length && sortedB[j] < element) {
+				j++;
+			}
+			if (j == sortedB.length || sortedB[j] != element) {
+				result[size++] = element;
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+	
+	private int[] concat(final int[] first, final int[] second) {
+		int[] result = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, result, first.length, second.length);
+		return result;
+	}
+
+}
@@ -0,0 +1,103 @@
+/**
+ * 
+ */
+package io.pratik;
+
+/**
+ * Set of primitive ints backed by an open-addressing hash table with linear probing,
+ * so lookups don't box and don't chase pointers.
+ */
+public class IntHashSet {
+	
+	// marks an empty slot, the value 0 itself is tracked by containsZero
+	private static final int EMPTY = 0;
+	
+	private int[] slots;
+	
+	private int mask;
+	
+	private int size;
+	
+	private boolean containsZero;
+	
+	public IntHashSet(final int expectedSize) {
+		// keep the load factor at or below 0.5
+		int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+		slots = new int[capacity];
+		mask = capacity - 1;
+	}
+	
+	public static IntHashSet of(final int[] elements) {
+		IntHashSet set = new IntHashSet(elements.length);
+		for (int element : elements) {
+			set.add(element);
+		}
+		return set;
+	}
+	
+	public boolean add(final int element) {
+		if (element == EMPTY) {
+			if (containsZero) {
+				return false;
+			}
+			containsZero = true;
+			size++;
+			return true;
+		}
+		
+		int index = indexOf(element);
+		if (slots[index] == element) {
+			return false;
+		}
+		slots[index] = element;
+		if (++size * 2 > slots.length) {
+			grow();
+		}
+		return true;
+	}
+	
+	public boolean contains(final int element) {
+		if (element == EMPTY) {
+			return containsZero;
+		}
+		return slots[indexOf(element)] == element;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns the slot containing the element, or the empty slot where it would be inserted.
+	 */
+	private int indexOf(final int element) {
+		int index = hash(element) & mask;
+		while (slots[index] != EMPTY && slots[index] != element) {
+			index = (index + 1) & mask;
+		}
+		return index;
+	}
+	
+	private void grow() {
+		int[] oldSlots = slots;
+		slots = new int[oldSlots.length * 2];
+		mask = slots.length - 1;
+		for (int element : oldSlots) {
+			if (element != EMPTY) {
+				slots[indexOf(element)] = element;
+			}
+		}
+	}
+	
+	private static int hash(final int element) {
+		// spread the bits so that sequential ints don't cluster
+		int h = element * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	@Override
+	public String toString() {
+		return "IntHashSet{size=" + size + ", capacity=" + slots.length + "}";
+	}
+
+}
@@ -0,0 +1,106 @@
+/**
+ * 
+ */
+package io.pratik.tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.pratik.CollectionHelper;
+import io.pratik.IntCollectionHelper;
+import io.pratik.IntHashSet;
+
+class IntCollectionHelperTest {
+	
+	private IntCollectionHelper intCollectionHelper;
+	
+	private CollectionHelper collectionHelper;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		intCollectionHelper = new IntCollectionHelper();
+		collectionHelper = new CollectionHelper();
+	}
+
+	@Test
+	void testIntersection() {
+		int[] intersection = intCollectionHelper.intersection(
+				new int[] {9, 8, 5, 4, 7, 15, 15}, 
+				new int[] {1, 3, 99, 4, 7});
+		
+		assertArrayEquals(new int[] {4, 7}, intersection);
+	}
+	
+	@Test
+	void testXOR() {
+		int[] xor = intCollectionHelper.xor(
+				new int[] {9, 8, 5, 4, 7}, 
+				new int[] {1, 99, 4, 7});
+		
+		assertArrayEquals(new int[] {9, 8, 5, 1, 99}, xor);
+	}
+	
+	@Test
+	void testNOT() {
+		int[] not = intCollectionHelper.not(
+				new int[] {9, 8, 5, 4, 7}, 
+				new int[] {1, 99, 4, 7});
+		
+		assertArrayEquals(new int[] {9, 8, 5}, not);
+	}
+	
+	@Test
+	void testSortedOperations() {
+		int[] sortedA = {0, 4, 4, 5, 7, 8, 9};
+		int[] sortedB = {0, 1, 4, 7, 99};
+		
+		assertArrayEquals(new int[] {0, 4, 4, 7}, intCollectionHelper.sortedIntersection(sortedA, sortedB));
+		assertArrayEquals(new int[] {5, 8, 9}, intCollectionHelper.sortedNot(sortedA, sortedB));
+	}
+	
+	@Test
+	void testSameResultsAsCollectionHelper() {
+		Random random = new Random(42);
+		int[] collA = random.ints(5_000, -2_000, 2_000).toArray();
+		int[] collB = random.ints(3_000, -2_000, 2_000).toArray();
+		List<Integer> listA = Arrays.stream(collA).boxed().collect(Collectors.toList());
+		List<Integer> listB = Arrays.stream(collB).boxed().collect(Collectors.toList());
+		
+		assertArrayEquals(IntCollectionHelper.toArray(collectionHelper.intersection(listA, listB)), intCollectionHelper.intersection(collA, collB));
+		assertArrayEquals(IntCollectionHelper.toArray(collectionHelper.intersection(listA, listB)), intCollectionHelper.parallelIntersection(collA, collB));
+		assertArrayEquals(IntCollectionHelper.toArray(collectionHelper.not(listA, listB)), intCollectionHelper.not(collA, collB));
+		assertArrayEquals(IntCollectionHelper.toArray(collectionHelper.not(listA, listB)), intCollectionHelper.parallelNot(collA, collB));
+		assertArrayEquals(IntCollectionHelper.toArray(collectionHelper.xor(listA, listB)), intCollectionHelper.xor(collA, collB));
+		assertArrayEquals(IntCollectionHelper.toArray(collectionHelper.xor(listA, listB)), intCollectionHelper.parallelXor(collA, collB));
+		
+		int[] sortedA = collA.clone();
+		int[] sortedB = collB.clone();
+		Arrays.sort(sortedA);
+		Arrays.sort(sortedB);
+		int[] expectedIntersection = intCollectionHelper.intersection(collA, collB);
+		Arrays.sort(expectedIntersection);
+		assertArrayEquals(expectedIntersection, intCollectionHelper.sortedIntersection(sortedA, sortedB));
+	}
+	
+	@Test
+	void testIntHashSet() {
+		IntHashSet set = new IntHashSet(2);
+		for (int i = -100; i <= 100; i++) {
+			Assertions.assertTrue(set.add(i * 31));
+		}
+		Assertions.assertFalse(set.add(0));
+		Assertions.assertEquals(201, set.size());
+		Assertions.assertTrue(set.contains(0));
+		Assertions.assertTrue(set.contains(-3100));
+		Assertions.assertFalse(set.contains(1));
+	}
+
+}
@@ -0,0 +1,72 @@
+/**
+ * 
+ */
+package io.pratik.graphqldemo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.websocket.server.HandshakeRequest;
+
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import graphql.servlet.GraphQLContext;
+import graphql.servlet.GraphQLContextBuilder;
+
+/**
+ * Gives every GraphQL request its own {@link DataLoaderRegistry}. The loaders batch the keys
+ * requested while resolving one level of the query into a single repository call, and cache
+ * the loaded values until the end of the request.
+ */
+@Component
+public class DataLoaderContextBuilder implements GraphQLContextBuilder {
+
+	public static final String MANUFACTURER_LOADER = "manufacturer";
+
+	private ManufacturerRepository manufacturerRepository;
+
+	@Autowired
+	public DataLoaderContextBuilder(final ManufacturerRepository manufacturerRepository) {
+		super();
+		this.manufacturerRepository = manufacturerRepository;
+	}
+
+	@Override
+	public GraphQLContext build(final HttpServletRequest request) {
+		return withDataLoaders(new GraphQLContext(request));
+	}
+
+	@Override
+	public GraphQLContext build(final HandshakeRequest request) {
+		return withDataLoaders(new GraphQLContext(request));
+	}
+
+	@Override
+	public GraphQLContext build() {
+		return withDataLoaders(new GraphQLContext());
+	}
+
+	private GraphQLContext withDataLoaders(final GraphQLContext context) {
+		DataLoaderRegistry registry = new DataLoaderRegistry();
+		registry.register(MANUFACTURER_LOADER, DataLoader.newDataLoader(this::loadManufacturers));
+		context.setDataLoaderRegistry(registry);
+		return context;
+	}
+
+	private CompletableFuture<List<Manufacturer>> loadManufacturers(final List<String> manufacturerIDs) {
+		Map<String, Manufacturer> manufacturers = manufacturerRepository.getManufacturersByIds(manufacturerIDs)
+				.stream()
+				.collect(Collectors.toMap(Manufacturer::getId, Function.identity()));
+		return CompletableFuture.completedFuture(manufacturerIDs.stream()
+				.map(manufacturers::get)
+				.collect(Collectors.toList()));
+	}
+
+}
@@ -7,6 +7,8 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import javax.annotation.PostConstruct;
@@ -16,6 +18,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.support.JdbcDaoSupport;
 import org.springframework.stereotype.Repository;
 
@@ -27,17 +30,32 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class ManufacturerRepository  {
 
+	private static final RowMapper<Manufacturer> MANUFACTURER_ROW_MAPPER = new RowMapper<Manufacturer>() {
+
+		@Override
+		public Manufacturer mapRow(ResultSet rs, int rowNum) throws SQLException {
+			return Manufacturer.builder()
+					.id(rs.getString("id"))
+					.name(rs.getString("name"))
+					.address(rs.getString("address"))
+					.build();
+		}
+
+	};
 	
 	private DataSource dataSource;
 	
 	private JdbcTemplate jdbcTemplate;
 	
+	private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+	
 	
 	@Autowired
 	public ManufacturerRepository(final DataSource dataSource) {
 		super();
 		this.dataSource = dataSource;
 		this.jdbcTemplate =  new JdbcTemplate(dataSource);
+		this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
 	}
 
 
@@ -85,17 +103,19 @@ public class ManufacturerRepository  {
 	public Manufacturer getManufacturerById(String manufacturerID) {
 		String sql = "SELECT * FROM Manufacturer WHERE id = ?";
 		
-		return jdbcTemplate.queryForObject(sql, new RowMapper<Manufacturer>() {
+		return jdbcTemplate.queryForObject(sql, MANUFACTURER_ROW_MAPPER, new Object[] { manufacturerID });
+	}
 
-			@Override
-			public Manufacturer mapRow(ResultSet rs, int rowNum) throws SQLException {
-				return Manufacturer.builder()
-						.id(rs.getString("id"))
-						.name(rs.getString("name"))
-						.address(rs.getString("address"))
-						.build();
-			}
-			
-		}, new Object[] { manufacturerID });
+	/**
+	 * Fetches the manufacturers with the given ids with one query. Unknown ids are left out.
+	 */
+	public List<Manufacturer> getManufacturersByIds(final Collection<String> manufacturerIDs) {
+		if (manufacturerIDs.isEmpty()) {
+			return Collections.emptyList();
+		}
+		String sql = "SELECT * FROM Manufacturer WHERE id IN (:ids)";
+
+		return namedParameterJdbcTemplate.query(sql, Collections.singletonMap("ids", manufacturerIDs),
+				MANUFACTURER_ROW_MAPPER);
 	}
 }
\ No newline at end of file
@@ -14,7 +14,6 @@ import java.util.UUID;
 import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
@@ -30,9 +29,6 @@ public class ProductRepository  {
 	private DataSource dataSource;
 	
 	private JdbcTemplate jdbcTemplate;
-	
-	@Autowired
-	private ManufacturerRepository manufacturerRepository;
 
 
 	public ProductRepository(DataSource dataSource) {
@@ -100,15 +96,7 @@ public class ProductRepository  {
 
 		List<Product> result = new ArrayList<Product>();
 		for (Map<String, Object> row : rows) {
-			
-			Manufacturer manufacturer = manufacturerRepository.getManufacturerById((String) row.get("manufacturer_id"));
-			result.add(Product.builder()
-					.id((String) row.get("id"))
-					.category((String) row.get("category"))
-					.description((String) row.get("description"))
-					.title((String) row.get("title"))
-					.madeBy(manufacturer)
-					.build());
+			result.add(toProduct(row));
 		}
 
 		return result;	}
@@ -119,19 +107,24 @@ public class ProductRepository  {
 
 		List<Product> result = new ArrayList<Product>();
 		for (Map<String, Object> row : rows) {
-			
-			Manufacturer manufacturer = manufacturerRepository.getManufacturerById((String) row.get("manufacturer_id"));
-			result.add(Product.builder()
-					.id((String) row.get("id"))
-					.category((String) row.get("category"))
-					.description((String) row.get("description"))
-					.title((String) row.get("title"))
-					.madeBy(manufacturer)
-					.build());
+			result.add(toProduct(row));
 		}
 
 		return result;
 	}
 
+	/**
+	 * Maps a product row. The manufacturer is left to {@link ProductResolver#getMadeBy}, which
+	 * loads the manufacturers of all products of a query together.
+	 */
+	private Product toProduct(final Map<String, Object> row) {
+		return Product.builder()
+				.id((String) row.get("id"))
+				.category((String) row.get("category"))
+				.description((String) row.get("description"))
+				.title((String) row.get("title"))
+				.manufacturerID((String) row.get("manufacturer_id"))
+				.build();
+	}
 
 }
\ No newline at end of file
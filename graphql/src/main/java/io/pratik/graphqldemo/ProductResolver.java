@@ -3,13 +3,20 @@
  */
 package io.pratik.graphqldemo;
 
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.coxautodev.graphql.tools.GraphQLResolver;
 
+import graphql.schema.DataFetchingEnvironment;
+import graphql.servlet.GraphQLContext;
+
 /**
  * @author Pratik Das
  *
@@ -26,7 +33,22 @@ public class ProductResolver implements GraphQLResolver<Product>{
 	}
 
 
-	public Manufacturer getMadeBy(final Product product) {
-		return manufacturerRepository.getManufacturerById(product.getManufacturerID());
+	/**
+	 * Loads the manufacturer through the request's batch loader, so the manufacturers of all
+	 * products in a query are fetched with one query.
+	 */
+	public CompletableFuture<Manufacturer> getMadeBy(final Product product, final DataFetchingEnvironment environment) {
+		if (product.getManufacturerID() == null) {
+			return CompletableFuture.completedFuture(product.getMadeBy());
+		}
+		GraphQLContext context = environment.getContext();
+		Optional<DataLoaderRegistry> registry = context.getDataLoaderRegistry();
+		if (!registry.isPresent()) {
+			return CompletableFuture.completedFuture(
+					manufacturerRepository.getManufacturerById(product.getManufacturerID()));
+		}
+		DataLoader<String, Manufacturer> manufacturerLoader =
+				registry.get().getDataLoader(DataLoaderContextBuilder.MANUFACTURER_LOADER);
+		return manufacturerLoader.load(product.getManufacturerID());
 	}
 }
@@ -0,0 +1,52 @@
+package io.pratik.graphqldemo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+		properties = "logging.level.org.springframework.jdbc.core.JdbcTemplate=DEBUG")
+@ExtendWith(OutputCaptureExtension.class)
+class ProductResolverTest {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void loadsManufacturersOfAllProductsWithOneQuery(CapturedOutput output) {
+		String query = "{ lastVisitedProducts(count: 5) { title madeBy { id name } } }";
+
+		Map<String, Object> response = restTemplate.postForObject("/graphql",
+				Collections.singletonMap("query", query), Map.class);
+
+		Map<String, Object> data = (Map<String, Object>) response.get("data");
+		List<Map<String, Object>> products = (List<Map<String, Object>>) data.get("lastVisitedProducts");
+		assertThat(products).hasSize(5);
+		assertThat(products)
+				.extracting(product -> ((Map<String, Object>) product.get("madeBy")).get("id"))
+				.containsExactlyInAnyOrder("SAMSUNG", "APPLE", "NOKIA", "APPLE", "APPLE");
+		assertThat(countOccurrences(output.getOut(), "FROM Manufacturer WHERE id IN")).isEqualTo(1);
+		assertThat(countOccurrences(output.getOut(), "FROM Manufacturer WHERE id = ?")).isZero();
+	}
+
+	private static int countOccurrences(final String text, final String part) {
+		int count = 0;
+		for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + part.length())) {
+			count++;
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,101 @@
+package hashing;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link HashCreator} with {@link FastHashCreator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashingBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final HashCreator hashCreator = new HashCreator();
+
+    private final FastHashCreator fastHashCreator = new FastHashCreator();
+
+    private final String password = "password123";
+
+    private List<String> tokens;
+
+    @Setup
+    public void setUp() {
+        tokens = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            tokens.add("token-" + i);
+        }
+    }
+
+    @Benchmark
+    public String md5HashCreator() throws NoSuchAlgorithmException {
+        return hashCreator.createMD5Hash(password);
+    }
+
+    @Benchmark
+    public String md5FastHashCreator() {
+        return fastHashCreator.createMD5Hash(password);
+    }
+
+    @Benchmark
+    public String shaHashCreator() throws NoSuchAlgorithmException {
+        return hashCreator.createSHAHash(password);
+    }
+
+    @Benchmark
+    public String shaFastHashCreator() {
+        return fastHashCreator.createSHAHash(password);
+    }
+
+    @Benchmark
+    public String saltedHashCreator() {
+        return hashCreator.createPasswordHashWithSalt(password);
+    }
+
+    @Benchmark
+    public String saltedFastHashCreator() {
+        return fastHashCreator.createPasswordHashWithSalt(password);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<String> batchHashCreator() throws NoSuchAlgorithmException {
+        List<String> hashes = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            hashes.add(hashCreator.createSHAHash(token));
+        }
+        return hashes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<String> batchFastHashCreator() {
+        return fastHashCreator.hashAll(tokens);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<String> batchParallelFastHashCreator() {
+        return fastHashCreator.hashAllParallel(tokens, FastHashCreator.HashAlgorithm.SHA_256);
+    }
+
+}
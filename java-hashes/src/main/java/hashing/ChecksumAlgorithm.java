@@ -0,0 +1,87 @@
+package hashing;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Algorithms supported by the {@link ChecksumEngine}.
+ */
+public enum ChecksumAlgorithm {
+
+    MD5("MD5"),
+    SHA_256("SHA-256"),
+    SHA_512("SHA-512"),
+    CRC32C(null);
+
+    private final String digestName;
+
+    ChecksumAlgorithm(final String digestName) {
+        this.digestName = digestName;
+    }
+
+    Hasher newHasher() throws NoSuchAlgorithmException {
+        if (digestName == null) {
+            return new Crc32cHasher();
+        }
+        return new DigestHasher(MessageDigest.getInstance(digestName));
+    }
+
+    /**
+     * Incrementally computes a checksum over byte buffers.
+     */
+    interface Hasher {
+
+        void update(ByteBuffer buffer);
+
+        void update(byte[] bytes);
+
+        byte[] digest();
+    }
+
+    private static class DigestHasher implements Hasher {
+
+        private final MessageDigest md;
+
+        DigestHasher(final MessageDigest md) {
+            this.md = md;
+        }
+
+        @Override
+        public void update(final ByteBuffer buffer) {
+            md.update(buffer);
+        }
+
+        @Override
+        public void update(final byte[] bytes) {
+            md.update(bytes);
+        }
+
+        @Override
+        public byte[] digest() {
+            return md.digest();
+        }
+    }
+
+    private static class Crc32cHasher implements Hasher {
+
+        private final java.util.zip.CRC32C crc = new java.util.zip.CRC32C();
+
+        @Override
+        public void update(final ByteBuffer buffer) {
+            crc.update(buffer);
+        }
+
+        @Override
+        public void update(final byte[] bytes) {
+            crc.update(bytes);
+        }
+
+        @Override
+        public byte[] digest() {
+            // the 32 bit value in big-endian byte order
+            return ByteBuffer.allocate(Integer.BYTES).putInt((int) crc.getValue()).array();
+        }
+    }
+
+}
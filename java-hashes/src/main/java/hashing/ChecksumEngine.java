@@ -0,0 +1,173 @@
+package hashing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Computes checksums of files without reading them byte by byte. Large files are memory-mapped in
+ * windows, small files are read through a reused direct buffer. Directory trees and chunked
+ * (Merkle-style) checksums of single files are computed in parallel.
+ */
+public class ChecksumEngine implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private static final long MAP_THRESHOLD = 16L * 1024 * 1024;
+
+    private static final long MAP_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    private final ExecutorService executor;
+
+    public ChecksumEngine() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ChecksumEngine(final int threads) {
+        this.executor = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Returns the checksum of the file as hexadecimal text.
+     */
+    public String checksum(final Path file, final ChecksumAlgorithm algorithm) throws IOException, NoSuchAlgorithmException {
+        return Hex.encode(digest(file, algorithm));
+    }
+
+    public byte[] digest(final Path file, final ChecksumAlgorithm algorithm) throws IOException, NoSuchAlgorithmException {
+        return fileDigest(file, algorithm);
+    }
+
+    /**
+     * Computes the digest of a single file on the calling thread, so callers that don't need the
+     * parallel methods don't have to create an engine and its thread pool.
+     */
+    public static byte[] fileDigest(final Path file, final ChecksumAlgorithm algorithm) throws IOException, NoSuchAlgorithmException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ChecksumAlgorithm.Hasher hasher = algorithm.newHasher();
+            update(hasher, channel, 0, channel.size());
+            return hasher.digest();
+        }
+    }
+
+    /**
+     * Computes the checksums of all regular files below the directory in parallel.
+     *
+     * @return the hexadecimal checksums by file path, sorted by path.
+     */
+    public Map<Path, String> checksumTree(final Path directory, final ChecksumAlgorithm algorithm) throws IOException, NoSuchAlgorithmException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            files = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+
+        List<Future<String>> checksums = new ArrayList<>(files.size());
+        for (Path file : files) {
+            checksums.add(executor.submit(() -> checksum(file, algorithm)));
+        }
+
+        Map<Path, String> result = new TreeMap<>();
+        for (int i = 0; i < files.size(); i++) {
+            result.put(files.get(i), await(checksums.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Computes a chunked checksum of the file: each chunk of {@code chunkSize} bytes is hashed in
+     * parallel, and the result is the hash over the concatenated chunk hashes. This is not the same
+     * value as {@link #checksum(Path, ChecksumAlgorithm)}, so both sides have to use the same
+     * algorithm and chunk size.
+     */
+    public String merkleChecksum(final Path file, final ChecksumAlgorithm algorithm, final long chunkSize) throws IOException, NoSuchAlgorithmException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<Future<byte[]>> chunkDigests = new ArrayList<>();
+            for (long position = 0; position < size; position += chunkSize) {
+                long chunkStart = position;
+                long chunkLength = Math.min(chunkSize, size - position);
+                chunkDigests.add(executor.submit(() -> {
+                    ChecksumAlgorithm.Hasher hasher = algorithm.newHasher();
+                    update(hasher, channel, chunkStart, chunkLength);
+                    return hasher.digest();
+                }));
+            }
+
+            ChecksumAlgorithm.Hasher root = algorithm.newHasher();
+            for (Future<byte[]> chunkDigest : chunkDigests) {
+                root.update(await(chunkDigest));
+            }
+            return Hex.encode(root.digest());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private static void update(final ChecksumAlgorithm.Hasher hasher, final FileChannel channel, final long start, final long length) throws IOException {
+        long end = start + length;
+        if (length >= MAP_THRESHOLD) {
+            for (long position = start; position < end; position += MAP_WINDOW_SIZE) {
+                hasher.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_WINDOW_SIZE, end - position)));
+            }
+            return;
+        }
+
+        ByteBuffer buffer = BUFFER.get();
+        long position = start;
+        while (position < end) {
+            buffer.clear();
+            if (end - position < buffer.capacity()) {
+                buffer.limit((int) (end - position));
+            }
+            // positional reads don't change the channel position, so chunks can be read concurrently
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            buffer.flip();
+            hasher.update(buffer);
+            position += read;
+        }
+    }
+
+    private static <T> T await(final Future<T> future) throws IOException, NoSuchAlgorithmException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while computing checksum", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof NoSuchAlgorithmException) {
+                throw (NoSuchAlgorithmException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+}
@@ -3,12 +3,12 @@
  */
 package hashing;
 
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
-import java.security.DigestInputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
@@ -39,7 +39,6 @@ public class HashCreator {
        String hashtext = null;
        MessageDigest md = MessageDigest.getInstance("SHA-256");
 	   byte[] messageDigest =  md.digest(input.getBytes(StandardCharsets.UTF_8)); 
-	   System.out.println(messageDigest.length);
 	   
 	   hashtext = convertToHex(messageDigest);
        return hashtext;
@@ -141,16 +140,10 @@ public class HashCreator {
     }
     
     public String createChecksum(final String filePath) throws FileNotFoundException, IOException, NoSuchAlgorithmException {
-    	MessageDigest md = MessageDigest.getInstance("SHA-256");
-        try (
-        		
-        	DigestInputStream dis = new DigestInputStream(
-        			new FileInputStream(filePath), md)) {
-            while (dis.read() != -1) ; 
-            md = dis.getMessageDigest();
+        if (!Files.exists(Paths.get(filePath))) {
+            throw new FileNotFoundException(filePath);
         }
-        
-        String checksum = convertToHex(md.digest());
+        String checksum = convertToHex(ChecksumEngine.fileDigest(Paths.get(filePath), ChecksumAlgorithm.SHA_256));
         return checksum;
     }
 	
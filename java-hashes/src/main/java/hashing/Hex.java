@@ -0,0 +1,44 @@
+package hashing;
+
+/**
+ * Encodes bytes as lowercase hexadecimal text using a lookup table, and decodes it again.
+ */
+public final class Hex {
+
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+    private Hex() {
+    }
+
+    public static String encode(final byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xff;
+            hex[2 * i] = DIGITS[b >>> 4];
+            hex[2 * i + 1] = DIGITS[b & 0x0f];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Decodes hexadecimal text with two digits per byte.
+     *
+     * @throws IllegalArgumentException if the text has an odd length or contains a non-hex digit.
+     */
+    public static byte[] decode(final String hex) {
+        if (hex.length() % 2 != 0) {
+            throw new IllegalArgumentException("hex text must have an even length");
+        }
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(hex.charAt(2 * i), 16);
+            int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("invalid hex digit");
+            }
+            bytes[i] = (byte) (high << 4 | low);
+        }
+        return bytes;
+    }
+
+}
@@ -0,0 +1,248 @@
+package hashing;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Hashes and verifies passwords with PBKDF2 on a bounded thread pool, so request threads only wait
+ * for a future and a burst of logins is rejected instead of piling up.
+ *
+ * <p>Hashes are stored in a self-describing format:
+ * {@code $pbkdf2-<prf>$<iterations>$<salt in hex>$<hash in hex>}. Hashes in the legacy format
+ * {@code <iterations>:<salt>:<hash>} of {@link HashCreator#generateStrongPasswordHash(String)}
+ * (PBKDF2WithHmacSHA1) are still verified. When a password is verified against a hash that uses a
+ * weaker algorithm or fewer iterations than configured, the result contains an upgraded hash to
+ * store instead.
+ */
+public class PasswordHashingService implements AutoCloseable {
+
+    public enum Algorithm {
+        PBKDF2_SHA1("PBKDF2WithHmacSHA1", "sha1", 20),
+        PBKDF2_SHA256("PBKDF2WithHmacSHA256", "sha256", 32),
+        PBKDF2_SHA512("PBKDF2WithHmacSHA512", "sha512", 64);
+
+        private final String id;
+
+        private final int hashLength;
+
+        // SecretKeyFactory instances are not thread-safe, so each hashing thread keeps its own
+        private final ThreadLocal<SecretKeyFactory> keyFactory;
+
+        Algorithm(final String jcaName, final String id, final int hashLength) {
+            this.id = id;
+            this.hashLength = hashLength;
+            this.keyFactory = ThreadLocal.withInitial(() -> {
+                try {
+                    return SecretKeyFactory.getInstance(jcaName);
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+
+        static Algorithm fromId(final String id) {
+            for (Algorithm algorithm : values()) {
+                if (algorithm.id.equals(id)) {
+                    return algorithm;
+                }
+            }
+            throw new IllegalArgumentException("unknown password hash algorithm " + id);
+        }
+    }
+
+    /**
+     * The outcome of verifying a password.
+     */
+    public static class Verification {
+
+        private final boolean matches;
+
+        private final String upgradedHash;
+
+        Verification(final boolean matches, final String upgradedHash) {
+            this.matches = matches;
+            this.upgradedHash = upgradedHash;
+        }
+
+        public boolean matches() {
+            return matches;
+        }
+
+        /**
+         * A hash of the password with the current algorithm and iteration count, if the password
+         * matched an outdated hash.
+         */
+        public Optional<String> getUpgradedHash() {
+            return Optional.ofNullable(upgradedHash);
+        }
+    }
+
+    private static final String PREFIX = "$pbkdf2-";
+
+    private static final int SALT_LENGTH = 16;
+
+    private static final int LEGACY_HASH_LENGTH = 64;
+
+    private static final ThreadLocal<SecureRandom> SECURE_RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    private final Algorithm algorithm;
+
+    private final int iterations;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Constructor.
+     *
+     * @param algorithm  the algorithm for new hashes.
+     * @param iterations the iteration count for new hashes, see {@link #calibrateIterations(Algorithm, Duration)}.
+     * @param threads    the number of threads hashing passwords.
+     * @param queueSize  the number of requests that may wait for a thread before new requests are rejected.
+     */
+    public PasswordHashingService(final Algorithm algorithm, final int iterations, final int threads, final int queueSize) {
+        this.algorithm = algorithm;
+        this.iterations = iterations;
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                daemonThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Returns the iteration count for which hashing a password with the algorithm takes about the
+     * target duration on this machine.
+     */
+    public static int calibrateIterations(final Algorithm algorithm, final Duration target) {
+        char[] password = "calibration-password".toCharArray();
+        byte[] salt = new byte[SALT_LENGTH];
+        int sampleIterations = 10_000;
+        // warm up the JIT before measuring
+        for (int i = 0; i < 3; i++) {
+            pbkdf2(algorithm, password, salt, sampleIterations, algorithm.hashLength);
+        }
+        long start = System.nanoTime();
+        pbkdf2(algorithm, password, salt, sampleIterations, algorithm.hashLength);
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        long iterations = target.toNanos() * sampleIterations / elapsed;
+        return (int) Math.max(1_000, Math.min(Integer.MAX_VALUE, iterations));
+    }
+
+    /**
+     * Hashes the password asynchronously.
+     *
+     * @throws RejectedExecutionException if the queue is full.
+     */
+    public CompletableFuture<String> hash(final String password) {
+        return CompletableFuture.supplyAsync(() -> createHash(password), executor);
+    }
+
+    /**
+     * Verifies the password against a stored hash asynchronously.
+     *
+     * @throws RejectedExecutionException if the queue is full.
+     */
+    public CompletableFuture<Verification> verify(final String password, final String storedHash) {
+        return CompletableFuture.supplyAsync(() -> verifyHash(password, storedHash), executor);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private String createHash(final String password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        SECURE_RANDOM.get().nextBytes(salt);
+        byte[] hash = pbkdf2(algorithm, password.toCharArray(), salt, iterations, algorithm.hashLength);
+        return PREFIX + algorithm.id + "$" + iterations + "$" + Hex.encode(salt) + "$" + Hex.encode(hash);
+    }
+
+    private Verification verifyHash(final String password, final String storedHash) {
+        Algorithm storedAlgorithm;
+        int storedIterations;
+        byte[] salt;
+        byte[] hash;
+
+        if (storedHash.startsWith(PREFIX)) {
+            String[] parts = storedHash.substring(PREFIX.length()).split("\\$");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("malformed password hash");
+            }
+            storedAlgorithm = Algorithm.fromId(parts[0]);
+            storedIterations = Integer.parseInt(parts[1]);
+            salt = decodeHex(parts[2], 0);
+            hash = decodeHex(parts[3], 0);
+        } else {
+            String[] parts = storedHash.split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("malformed password hash");
+            }
+            // HashCreator encodes without leading zeros, so the hex strings may be too short
+            storedAlgorithm = Algorithm.PBKDF2_SHA1;
+            storedIterations = Integer.parseInt(parts[0]);
+            salt = decodeHex(parts[1], SALT_LENGTH);
+            hash = decodeHex(parts[2], LEGACY_HASH_LENGTH);
+        }
+
+        byte[] actual = pbkdf2(storedAlgorithm, password.toCharArray(), salt, storedIterations, hash.length);
+        boolean matches = MessageDigest.isEqual(hash, actual);
+
+        boolean outdated = storedAlgorithm.ordinal() < algorithm.ordinal() || storedIterations < iterations;
+        String upgradedHash = matches && outdated ? createHash(password) : null;
+        return new Verification(matches, upgradedHash);
+    }
+
+    private static byte[] pbkdf2(final Algorithm algorithm, final char[] password, final byte[] salt, final int iterations, final int keyLength) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, keyLength * 8);
+        try {
+            return algorithm.keyFactory.get().generateSecret(spec).getEncoded();
+        } catch (InvalidKeySpecException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static byte[] decodeHex(final String hex, final int minLength) {
+        String padded = hex;
+        if (padded.length() % 2 != 0 || padded.length() < 2 * minLength) {
+            char[] zeros = new char[Math.max(2 * minLength, padded.length() + padded.length() % 2) - padded.length()];
+            Arrays.fill(zeros, '0');
+            padded = new String(zeros) + padded;
+        }
+        byte[] bytes = new byte[padded.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(padded, 2 * i, 2 * i + 2, 16);
+        }
+        return bytes;
+    }
+
+    private static ThreadFactory daemonThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
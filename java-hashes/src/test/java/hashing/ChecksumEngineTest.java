@@ -0,0 +1,97 @@
+package hashing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ChecksumEngineTest {
+
+    @TempDir
+    Path directory;
+
+    private final ChecksumEngine engine = new ChecksumEngine(2);
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void sha256MatchesKnownAnswers() throws Exception {
+        Path abc = write("abc.txt", "abc");
+        Path empty = write("empty.txt", "");
+
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", engine.checksum(abc, ChecksumAlgorithm.SHA_256));
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", engine.checksum(empty, ChecksumAlgorithm.SHA_256));
+    }
+
+    @Test
+    void crc32cMatchesCheckValue() throws Exception {
+        Path file = write("check.txt", "123456789");
+
+        assertEquals("e3069283", engine.checksum(file, ChecksumAlgorithm.CRC32C));
+    }
+
+    @Test
+    void memoryMappedFileMatchesDigestOfContent() throws Exception {
+        // larger than the threshold above which files are memory-mapped
+        byte[] content = new byte[17 * 1024 * 1024 + 3];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        Path file = directory.resolve("large.bin");
+        Files.write(file, content);
+
+        String expected = Hex.encode(MessageDigest.getInstance("SHA-256").digest(content));
+        assertEquals(expected, engine.checksum(file, ChecksumAlgorithm.SHA_256));
+        assertEquals(expected, Hex.encode(ChecksumEngine.fileDigest(file, ChecksumAlgorithm.SHA_256)));
+    }
+
+    @Test
+    void merkleChecksumHashesTheChunkHashes() throws Exception {
+        // chunks "aaaa", "aaaa", "aa"; sha256 over their concatenated sha256 hashes
+        Path file = write("a.txt", "aaaaaaaaaa");
+
+        assertEquals("45151c8b9ef638c2d933e69006efdab44f7a2d42cd6fbbc79586facf01870b7d", engine.merkleChecksum(file, ChecksumAlgorithm.SHA_256, 4));
+    }
+
+    @Test
+    void merkleChecksumRejectsInvalidChunkSize() throws Exception {
+        Path file = write("a.txt", "aaaaaaaaaa");
+
+        assertThrows(IllegalArgumentException.class, () -> engine.merkleChecksum(file, ChecksumAlgorithm.SHA_256, 0));
+    }
+
+    @Test
+    void treeChecksumContainsEveryFile() throws Exception {
+        Path abc = write("abc.txt", "abc");
+        Files.createDirectory(directory.resolve("sub"));
+        Path check = write("sub/check.txt", "123456789");
+
+        Map<Path, String> checksums = engine.checksumTree(directory, ChecksumAlgorithm.CRC32C);
+
+        assertEquals(2, checksums.size());
+        assertEquals("364b3fb7", checksums.get(abc));
+        assertEquals("e3069283", checksums.get(check));
+    }
+
+    @Test
+    void missingFileFails() {
+        assertThrows(IOException.class, () -> engine.checksum(directory.resolve("missing"), ChecksumAlgorithm.MD5));
+    }
+
+    private Path write(final String name, final String content) throws IOException {
+        return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+}
@@ -0,0 +1,88 @@
+package hashing;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class FastHashCreatorTest {
+
+    private final FastHashCreator fastHashCreator = new FastHashCreator();
+
+    private final HashCreator hashCreator = new HashCreator();
+
+    @Test
+    void hashesMatchKnownAnswers() {
+        assertEquals("900150983cd24fb0d6963f7d28e17f72", fastHashCreator.createMD5Hash("abc"));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", fastHashCreator.createSHAHash("abc"));
+    }
+
+    @Test
+    void hashesMatchHashCreator() throws Exception {
+        assertEquals(hashCreator.createMD5Hash("password123"), fastHashCreator.createMD5Hash("password123"));
+        assertEquals(hashCreator.createSHAHash("password123"), fastHashCreator.createSHAHash("password123"));
+    }
+
+    @Test
+    void shaHashKeepsLeadingZeros() {
+        // sha256("w20") starts with a zero byte, HashCreator would drop it
+        String hash = fastHashCreator.createSHAHash("w20");
+        assertEquals(64, hash.length());
+        assertTrue(hash.startsWith("00"));
+    }
+
+    @Test
+    void saltedHashesDiffer() {
+        String first = fastHashCreator.createPasswordHashWithSalt("password123");
+        String second = fastHashCreator.createPasswordHashWithSalt("password123");
+
+        assertEquals(32, first.length());
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void batchHashesKeepTheOrderOfTheInputs() {
+        List<String> inputs = IntStream.range(0, 1000)
+                .mapToObj(i -> "token-" + i)
+                .collect(Collectors.toList());
+
+        List<String> hashes = fastHashCreator.hashAll(inputs);
+
+        assertEquals(fastHashCreator.createSHAHash("token-42"), hashes.get(42));
+        assertEquals(hashes, fastHashCreator.hashAllParallel(inputs, FastHashCreator.HashAlgorithm.SHA_256));
+    }
+
+    @Test
+    void pbkdf2MatchesRfc6070() {
+        byte[] salt = "salt".getBytes(StandardCharsets.US_ASCII);
+
+        assertArrayEquals(Hex.decode("0c60c80f961f0e71f3a9b524af6012062fe037a6"), FastHashCreator.pbkdf2("password", salt, 1, 20));
+        assertArrayEquals(Hex.decode("4b007901b765489abead49d926f721d065a429c1"), FastHashCreator.pbkdf2("password", salt, 4096, 20));
+    }
+
+    @Test
+    void strongPasswordHashIsVerified() {
+        String hash = fastHashCreator.generateStrongPasswordHash("password123");
+
+        assertTrue(hash.startsWith("1000:"));
+        assertTrue(fastHashCreator.validatePassword("password123", hash));
+        assertFalse(fastHashCreator.validatePassword("password124", hash));
+    }
+
+    @Test
+    void malformedStrongPasswordHashIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> fastHashCreator.validatePassword("password123", "1000:abcd"));
+        assertThrows(IllegalArgumentException.class, () -> fastHashCreator.validatePassword("password123", "1000:abc:abcd"));
+        assertThrows(IllegalArgumentException.class, () -> fastHashCreator.validatePassword("password123", "1000:zz:abcd"));
+    }
+
+}
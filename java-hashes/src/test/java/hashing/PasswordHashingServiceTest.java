@@ -0,0 +1,130 @@
+package hashing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import hashing.PasswordHashingService.Algorithm;
+import hashing.PasswordHashingService.Verification;
+
+class PasswordHashingServiceTest {
+
+    // PBKDF2-HMAC-SHA1 of "password" with salt "salt" and 1 iteration (RFC 6070)
+    private static final String RFC_6070_HASH = "$pbkdf2-sha1$1$"
+            + Hex.encode("salt".getBytes(StandardCharsets.US_ASCII))
+            + "$0c60c80f961f0e71f3a9b524af6012062fe037a6";
+
+    private final PasswordHashingService service = new PasswordHashingService(Algorithm.PBKDF2_SHA256, 2000, 2, 10);
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void hashIsSelfDescribingAndVerified() {
+        String hash = service.hash("password123").join();
+
+        String[] parts = hash.split("\\$");
+        assertEquals("pbkdf2-sha256", parts[1]);
+        assertEquals("2000", parts[2]);
+        assertEquals(32, parts[3].length());
+        assertEquals(64, parts[4].length());
+
+        Verification verification = service.verify("password123", hash).join();
+        assertTrue(verification.matches());
+        assertFalse(verification.getUpgradedHash().isPresent());
+        assertFalse(service.verify("password124", hash).join().matches());
+    }
+
+    @Test
+    void storedHashIsParsed() {
+        assertTrue(service.verify("password", RFC_6070_HASH).join().matches());
+        assertFalse(service.verify("passwort", RFC_6070_HASH).join().matches());
+    }
+
+    @Test
+    void legacyHashIsVerified() throws Exception {
+        String legacyHash = new HashCreator().generateStrongPasswordHash("password123");
+
+        assertTrue(service.verify("password123", legacyHash).join().matches());
+        assertFalse(service.verify("password124", legacyHash).join().matches());
+    }
+
+    @Test
+    void outdatedHashIsUpgradedOnVerify() throws Exception {
+        String legacyHash = new HashCreator().generateStrongPasswordHash("password123");
+
+        Verification verification = service.verify("password123", legacyHash).join();
+        assertTrue(verification.matches());
+        String upgradedHash = verification.getUpgradedHash().orElseThrow();
+        assertTrue(upgradedHash.startsWith("$pbkdf2-sha256$2000$"));
+
+        Verification upgraded = service.verify("password123", upgradedHash).join();
+        assertTrue(upgraded.matches());
+        assertFalse(upgraded.getUpgradedHash().isPresent());
+    }
+
+    @Test
+    void hashWithFewerIterationsIsUpgraded() {
+        try (PasswordHashingService weaker = new PasswordHashingService(Algorithm.PBKDF2_SHA256, 1000, 1, 10)) {
+            String hash = weaker.hash("password123").join();
+
+            assertTrue(service.verify("password123", hash).join().getUpgradedHash().isPresent());
+        }
+    }
+
+    @Test
+    void wrongPasswordIsNotUpgraded() {
+        Verification verification = service.verify("passwort", RFC_6070_HASH).join();
+
+        assertFalse(verification.matches());
+        assertFalse(verification.getUpgradedHash().isPresent());
+    }
+
+    @Test
+    void tamperedHashDoesNotMatch() {
+        String hash = service.hash("password123").join();
+        char last = hash.charAt(hash.length() - 1);
+        String tampered = hash.substring(0, hash.length() - 1) + (last == '0' ? '1' : '0');
+
+        assertFalse(service.verify("password123", tampered).join().matches());
+        assertFalse(service.verify("password123", hash.replace("$2000$", "$2001$")).join().matches());
+    }
+
+    @Test
+    void malformedHashIsRejected() {
+        assertMalformed("$pbkdf2-sha256$2000$abcd");
+        assertMalformed("$pbkdf2-md5$2000$abcd$abcd");
+        assertMalformed("$pbkdf2-sha256$many$abcd$abcd");
+        assertMalformed("$pbkdf2-sha256$2000$xyz1$abcd");
+        assertMalformed("1000:abcd");
+        assertMalformed("not a hash");
+    }
+
+    @Test
+    void requestsAreRejectedWhenThePoolIsSaturated() {
+        // one thread and one queue slot, each hash takes long enough to keep both occupied
+        try (PasswordHashingService saturated = new PasswordHashingService(Algorithm.PBKDF2_SHA512, 5_000_000, 1, 1)) {
+            saturated.hash("first");
+            saturated.hash("second");
+
+            assertThrows(RejectedExecutionException.class, () -> saturated.hash("third"));
+            assertThrows(RejectedExecutionException.class, () -> saturated.verify("third", RFC_6070_HASH));
+        }
+    }
+
+    private void assertMalformed(final String storedHash) {
+        CompletionException e = assertThrows(CompletionException.class, () -> service.verify("password123", storedHash).join());
+        assertTrue(e.getCause() instanceof IllegalArgumentException, () -> storedHash + ": " + e.getCause());
+    }
+
+}
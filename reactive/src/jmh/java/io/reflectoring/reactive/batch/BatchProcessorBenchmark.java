@@ -0,0 +1,166 @@
+package io.reflectoring.reactive.batch;
+
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how long the batch processors take per message for different thread pool
+ * configurations and handler workloads.
+ *
+ * <p>The processors create new thread pools on each start (V1 and V2 even create a pool per
+ * message), so every invocation processes a whole run of messages with a new processor, which is
+ * stopped afterwards.
+ *
+ * <p>The handler latency varies per message: it is drawn from an exponential distribution around
+ * {@code handlerMicros}, with the same seed for every trial, so a few slow messages show up in the
+ * latency tail. The {@link LatencyProfiler} reports the 50th and 99th percentile of the latency
+ * between emitting a message from the source and finishing its handler. Run with {@code -prof gc}
+ * to get the allocation rate per message (both are the default of the {@code jmh} task).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BatchProcessorBenchmark {
+
+  private static final int BATCHES = 50;
+
+  private static final int BATCH_SIZE = 10;
+
+  private static final int MESSAGES = BATCHES * BATCH_SIZE;
+
+  @Param({"V1", "V2", "V3", "ReactiveBatchProcessor"})
+  public String processor;
+
+  @Param({"2", "8"})
+  public int threads;
+
+  @Param({"10", "100"})
+  public int threadPoolQueueSize;
+
+  /**
+   * "cpu" keeps the handler thread busy, "blocking" parks it like an I/O call.
+   */
+  @Param({"cpu", "blocking"})
+  public String workload;
+
+  /**
+   * The mean handler latency in microseconds.
+   */
+  @Param({"100", "1000"})
+  public int handlerMicros;
+
+  private final long[] handlerNanos = new long[MESSAGES];
+
+  private final long[] emittedAt = new long[MESSAGES];
+
+  private final long[] latencies = new long[MESSAGES];
+
+  private CountDownLatch remainingMessages;
+
+  private Runnable stopProcessor;
+
+  @Setup(Level.Trial)
+  public void drawHandlerLatencies() {
+    Random random = new Random(42);
+    long meanNanos = TimeUnit.MICROSECONDS.toNanos(handlerMicros);
+    for (int i = 0; i < MESSAGES; i++) {
+      handlerNanos[i] = (long) (-meanNanos * Math.log(1 - random.nextDouble()));
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void setUp() {
+    remainingMessages = new CountDownLatch(MESSAGES);
+  }
+
+  @TearDown(Level.Invocation)
+  public void tearDown() {
+    stopProcessor.run();
+    LatencyProfiler.record(latencies);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MESSAGES)
+  public void processMessages() throws InterruptedException {
+    stopProcessor = startProcessor(messageSource(), this::handleMessage);
+    // the processors swallow errors like rejected executions, so we can only detect them by a timeout
+    if (!remainingMessages.await(1, TimeUnit.MINUTES)) {
+      throw new IllegalStateException("processor did not finish within 1 minute");
+    }
+  }
+
+  private Runnable startProcessor(MessageSource messageSource, MessageHandler messageHandler) {
+    switch (processor) {
+      case "V1":
+        ReactiveBatchProcessorV1 v1 = new ReactiveBatchProcessorV1(messageSource, messageHandler, threads, threadPoolQueueSize);
+        v1.start();
+        return v1::stop;
+      case "V2":
+        ReactiveBatchProcessorV2 v2 = new ReactiveBatchProcessorV2(messageSource, messageHandler, threads, threadPoolQueueSize);
+        v2.start();
+        return v2::stop;
+      case "V3":
+        ReactiveBatchProcessorV3 v3 = new ReactiveBatchProcessorV3(messageSource, messageHandler, threads, threadPoolQueueSize);
+        v3.start();
+        return v3::stop;
+      case "ReactiveBatchProcessor":
+        ReactiveBatchProcessor reactive = new ReactiveBatchProcessor(messageSource, messageHandler, threads, threadPoolQueueSize);
+        reactive.start();
+        return reactive::stop;
+      default:
+        throw new IllegalArgumentException("unknown processor " + processor);
+    }
+  }
+
+  private MessageSource messageSource() {
+    return () -> Flowable.range(0, BATCHES)
+        .map(batch -> {
+          List<Message> messages = new ArrayList<>(BATCH_SIZE);
+          for (int i = 0; i < BATCH_SIZE; i++) {
+            int index = batch * BATCH_SIZE + i;
+            emittedAt[index] = System.nanoTime();
+            messages.add(new Message(Integer.toString(index)));
+          }
+          return new MessageBatch(messages);
+        });
+  }
+
+  private MessageHandler.Result handleMessage(Message message) {
+    int index = Integer.parseInt(message.getContent());
+    if ("blocking".equals(workload)) {
+      LockSupport.parkNanos(handlerNanos[index]);
+    } else {
+      long end = System.nanoTime() + handlerNanos[index];
+      while (System.nanoTime() < end) {
+        Blackhole.consumeCPU(100);
+      }
+    }
+    latencies[index] = System.nanoTime() - emittedAt[index];
+    remainingMessages.countDown();
+    return MessageHandler.Result.SUCCESS;
+  }
+
+}
@@ -0,0 +1,69 @@
+package io.reflectoring.reactive.batch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * Reports percentiles of the message latencies recorded by {@link BatchProcessorBenchmark} as
+ * secondary JMH results. The percentiles are computed per iteration and averaged over the
+ * measurement iterations by JMH, so warmup iterations don't contribute to the reported values.
+ *
+ * <p>Enable with {@code -prof io.reflectoring.reactive.batch.LatencyProfiler} (the default of the
+ * {@code jmh} task).
+ */
+public class LatencyProfiler implements InternalProfiler {
+
+  private static final List<long[]> recorded = new ArrayList<>();
+
+  /**
+   * Records the latencies of all messages of one benchmark invocation.
+   */
+  static synchronized void record(long[] latencies) {
+    recorded.add(latencies.clone());
+  }
+
+  @Override
+  public String getDescription() {
+    return "percentiles of the latency between emitting a message and finishing its handler";
+  }
+
+  @Override
+  public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+    synchronized (LatencyProfiler.class) {
+      recorded.clear();
+    }
+  }
+
+  @Override
+  public Collection<? extends Result> afterIteration(
+      BenchmarkParams benchmarkParams,
+      IterationParams iterationParams,
+      IterationResult result) {
+    long[] latencies;
+    synchronized (LatencyProfiler.class) {
+      latencies = recorded.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+    }
+    if (latencies.length == 0) {
+      return List.of();
+    }
+    return List.of(
+        percentile("latency.p50", latencies, 0.50),
+        percentile("latency.p99", latencies, 0.99));
+  }
+
+  private static ScalarResult percentile(String label, long[] sortedLatencies, double percentile) {
+    long nanos = sortedLatencies[(int) Math.ceil(sortedLatencies.length * percentile) - 1];
+    return new ScalarResult(label, nanos / (double) TimeUnit.MICROSECONDS.toNanos(1), "us", AggregationPolicy.AVG);
+  }
+
+}
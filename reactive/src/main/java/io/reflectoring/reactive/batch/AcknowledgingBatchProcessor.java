@@ -0,0 +1,95 @@
+package io.reflectoring.reactive.batch;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Like the {@link ReactiveBatchProcessor}, but calls a {@link BatchAcknowledgement} with the
+ * aggregated results once all messages of a batch have been handled. This allows committing
+ * batches and retrying only the failed messages of a batch.
+ */
+public class AcknowledgingBatchProcessor {
+
+  private final static Logger logger = new Logger();
+
+  private final int threads;
+
+  private final int threadPoolQueueSize;
+
+  private final MessageHandler messageHandler;
+
+  private final MessageSource messageSource;
+
+  private final BatchAcknowledgement acknowledgement;
+
+  AcknowledgingBatchProcessor(
+      MessageSource messageSource,
+      MessageHandler messageHandler,
+      BatchAcknowledgement acknowledgement,
+      int threads,
+      int threadPoolQueueSize) {
+    this.messageSource = messageSource;
+    this.threads = threads;
+    this.messageHandler = messageHandler;
+    this.acknowledgement = acknowledgement;
+    this.threadPoolQueueSize = threadPoolQueueSize;
+  }
+
+  void start() {
+
+    Scheduler scheduler = threadPoolScheduler(threads, threadPoolQueueSize);
+
+    messageSource.getMessageBatches()
+        .subscribeOn(Schedulers.from(Executors.newSingleThreadExecutor()))
+        .doOnNext(batch -> logger.log("received", batch))
+        .map(batch -> new BatchTracker(batch, acknowledgement))
+        .flatMap(tracker -> Flowable.fromIterable(tracker.getBatch().getMessages())
+            .map(m -> new TrackedMessage(m, tracker)))
+        .flatMapSingle(m -> Single.defer(() -> Single.just(m)
+            .map(this::handleMessage))
+            .subscribeOn(scheduler))
+        .subscribeWith(new SimpleSubscriber<>(threads, 1));
+  }
+
+  private MessageHandler.Result handleMessage(TrackedMessage trackedMessage) {
+    MessageHandler.Result result;
+    try {
+      result = messageHandler.handleMessage(trackedMessage.message);
+    } catch (RuntimeException e) {
+      logger.log(String.format("error handling message %s: %s", trackedMessage.message, e.getMessage()));
+      result = MessageHandler.Result.FAILURE;
+    }
+    trackedMessage.tracker.record(trackedMessage.message, result);
+    return result;
+  }
+
+  private Scheduler threadPoolScheduler(int poolSize, int queueSize) {
+    return Schedulers.from(new ThreadPoolExecutor(
+        poolSize,
+        poolSize,
+        0L,
+        TimeUnit.SECONDS,
+        new LinkedBlockingDeque<>(queueSize),
+        new WaitForCapacityPolicy()
+    ));
+  }
+
+  private static class TrackedMessage {
+
+    private final Message message;
+
+    private final BatchTracker tracker;
+
+    TrackedMessage(Message message, BatchTracker tracker) {
+      this.message = message;
+      this.tracker = tracker;
+    }
+  }
+
+}
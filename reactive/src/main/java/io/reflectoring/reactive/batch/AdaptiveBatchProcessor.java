@@ -0,0 +1,116 @@
+package io.reflectoring.reactive.batch;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Like the {@link ReactiveBatchProcessor}, but requests messages with an {@link AdaptiveSubscriber}
+ * instead of a fixed demand. The window of the subscriber is published as the gauge
+ * {@code batch.adaptive.window}, the messages in flight as {@code batch.adaptive.inflight}, both
+ * tagged with the name of the processor.
+ */
+public class AdaptiveBatchProcessor {
+
+  private final static Logger logger = new Logger();
+
+  private final static AtomicInteger instances = new AtomicInteger();
+
+  private final int threads;
+
+  private final int threadPoolQueueSize;
+
+  private final long targetLatencyMillis;
+
+  private final MessageHandler messageHandler;
+
+  private final MessageSource messageSource;
+
+  private final MeterRegistry meterRegistry;
+
+  private final String name;
+
+  private AdaptiveSubscriber<Message> subscriber;
+
+  AdaptiveBatchProcessor(
+      MessageSource messageSource,
+      MessageHandler messageHandler,
+      int threads,
+      int threadPoolQueueSize,
+      long targetLatencyMillis) {
+    this(messageSource, messageHandler, threads, threadPoolQueueSize, targetLatencyMillis, Metrics.globalRegistry);
+  }
+
+  AdaptiveBatchProcessor(
+      MessageSource messageSource,
+      MessageHandler messageHandler,
+      int threads,
+      int threadPoolQueueSize,
+      long targetLatencyMillis,
+      MeterRegistry meterRegistry) {
+    this.messageSource = messageSource;
+    this.threads = threads;
+    this.messageHandler = messageHandler;
+    this.threadPoolQueueSize = threadPoolQueueSize;
+    this.targetLatencyMillis = targetLatencyMillis;
+    this.meterRegistry = meterRegistry;
+    this.name = "adaptive-" + instances.incrementAndGet();
+  }
+
+  void start() {
+
+    ThreadPoolExecutor executor = threadPool(threads, threadPoolQueueSize);
+
+    subscriber = new AdaptiveSubscriber<>(
+        executor,
+        messageHandler::handleMessage,
+        threads,
+        1,
+        threads + threadPoolQueueSize,
+        targetLatencyMillis,
+        TimeUnit.MILLISECONDS,
+        () -> executor.getQueue().size(),
+        threadPoolQueueSize / 2);
+
+    messageSource.getMessageBatches()
+        .subscribeOn(Schedulers.from(Executors.newSingleThreadExecutor()))
+        .doOnNext(batch -> logger.log("received", batch))
+        .flatMap(batch -> Flowable.fromIterable(batch.getMessages()))
+        .subscribeWith(subscriber);
+
+    Gauge.builder("batch.adaptive.window", subscriber, AdaptiveSubscriber::getWindow)
+        .description("messages the adaptive subscriber allows to be in flight")
+        .tag("processor", name)
+        .register(meterRegistry);
+    Gauge.builder("batch.adaptive.inflight", subscriber, AdaptiveSubscriber::getInFlight)
+        .description("messages requested or being handled")
+        .tag("processor", name)
+        .register(meterRegistry);
+  }
+
+  /**
+   * The name of this processor, used as the {@code processor} tag of its metrics.
+   */
+  String getName() {
+    return name;
+  }
+
+  private ThreadPoolExecutor threadPool(int poolSize, int queueSize) {
+    return new ThreadPoolExecutor(
+        poolSize,
+        poolSize,
+        0L,
+        TimeUnit.SECONDS,
+        new LinkedBlockingDeque<>(queueSize),
+        new WaitForCapacityPolicy()
+    );
+  }
+
+}
@@ -0,0 +1,174 @@
+package io.reflectoring.reactive.batch;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Subscriber that hands each message to an executor and adapts its demand to the observed handler
+ * latency and the queue depth of the thread pool (additive increase, multiplicative decrease).
+ * As long as messages are handled within the target latency and the queue is not filling up, the
+ * window grows by one per full window. Otherwise, it is halved.
+ *
+ * <p>The window bounds the messages that are requested or being handled: new messages are only
+ * requested when a handler finishes, so at most {@code window} messages are ever dispatched to the
+ * executor at the same time.
+ *
+ * <p>Messages are requested outside of the lock: a source may emit the requested messages on the
+ * requesting thread, and handing them to a full executor can block that thread until a pool thread
+ * becomes free.
+ */
+class AdaptiveSubscriber<T> implements Subscriber<T> {
+
+  private final Logger logger = new Logger();
+
+  private final Executor executor;
+
+  private final Consumer<T> handler;
+
+  private final int minWindow;
+
+  private final int maxWindow;
+
+  private final long targetLatencyNanos;
+
+  private final IntSupplier queueDepth;
+
+  private final int maxQueueDepth;
+
+  private volatile Subscription subscription;
+
+  private volatile int window;
+
+  private volatile int inFlight;
+
+  private int handledSinceIncrease;
+
+  private int handledSinceDecrease;
+
+  /**
+   * Constructor.
+   *
+   * @param executor      executes the handler for each message.
+   * @param handler       handles a single message.
+   * @param initialWindow the number of messages to request initially.
+   * @param minWindow     the lower bound of the window.
+   * @param maxWindow     the upper bound of the window.
+   * @param targetLatency the handler latency above which the window is decreased.
+   * @param queueDepth    supplies the current number of tasks waiting in the thread pool queue.
+   * @param maxQueueDepth the queue depth above which the window is decreased.
+   */
+  AdaptiveSubscriber(
+      Executor executor,
+      Consumer<T> handler,
+      int initialWindow,
+      int minWindow,
+      int maxWindow,
+      long targetLatency,
+      TimeUnit unit,
+      IntSupplier queueDepth,
+      int maxQueueDepth) {
+    if (minWindow < 1 || minWindow > maxWindow) {
+      throw new IllegalArgumentException("expecting 1 <= minWindow <= maxWindow");
+    }
+    this.executor = executor;
+    this.handler = handler;
+    this.minWindow = minWindow;
+    this.maxWindow = maxWindow;
+    this.window = Math.max(minWindow, Math.min(maxWindow, initialWindow));
+    this.targetLatencyNanos = unit.toNanos(targetLatency);
+    this.queueDepth = queueDepth;
+    this.maxQueueDepth = maxQueueDepth;
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    int demand;
+    synchronized (this) {
+      this.subscription = subscription;
+      demand = window;
+      inFlight = demand;
+    }
+    subscription.request(demand);
+    logger.log("subscribed");
+  }
+
+  @Override
+  public void onNext(T message) {
+    executor.execute(() -> {
+      long start = System.nanoTime();
+      try {
+        handler.accept(message);
+      } finally {
+        onHandled(System.nanoTime() - start);
+      }
+    });
+  }
+
+  /**
+   * Adapts the window to the latency of a finished handler and requests as many messages as the
+   * window allows.
+   */
+  void onHandled(long latencyNanos) {
+    int demand = adapt(latencyNanos);
+    if (demand > 0) {
+      subscription.request(demand);
+    }
+  }
+
+  /**
+   * Adapts the window and returns the number of messages to request, which are counted as in flight
+   * from here on.
+   */
+  private synchronized int adapt(long latencyNanos) {
+    inFlight--;
+    handledSinceIncrease++;
+    handledSinceDecrease++;
+
+    if (latencyNanos > targetLatencyNanos || queueDepth.getAsInt() > maxQueueDepth) {
+      // decrease at most once per window, so a burst of slow messages doesn't collapse the window
+      if (handledSinceDecrease >= window) {
+        window = Math.max(minWindow, window / 2);
+        handledSinceDecrease = 0;
+      }
+      handledSinceIncrease = 0;
+    } else if (handledSinceIncrease >= window) {
+      window = Math.min(maxWindow, window + 1);
+      handledSinceIncrease = 0;
+    }
+
+    int demand = window - inFlight;
+    if (demand > 0) {
+      inFlight += demand;
+    }
+    return demand;
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    logger.log("error");
+  }
+
+  @Override
+  public void onComplete() {
+    logger.log("completed");
+  }
+
+  /**
+   * The current number of messages this subscriber allows to be in flight.
+   */
+  int getWindow() {
+    return window;
+  }
+
+  /**
+   * The number of messages requested or being handled.
+   */
+  int getInFlight() {
+    return inFlight;
+  }
+
+}
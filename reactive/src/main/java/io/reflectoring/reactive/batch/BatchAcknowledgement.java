@@ -0,0 +1,10 @@
+package io.reflectoring.reactive.batch;
+
+/**
+ * Called once all messages of a {@link MessageBatch} have been handled.
+ */
+interface BatchAcknowledgement {
+
+  void acknowledge(BatchResult result);
+
+}
@@ -0,0 +1,91 @@
+package io.reflectoring.reactive.batch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer metrics of the batch processing pipeline. All meters are tagged with the name of the
+ * processor they belong to, so several processors can share a registry. The entries dropped by the
+ * async {@link Logger} are counted once per registry, since the logger is shared by all processors.
+ */
+class BatchMetrics {
+
+  private final MeterRegistry registry;
+
+  private final Tags tags;
+
+  private final Counter batchesReceived;
+
+  private final Counter rejections;
+
+  private final AtomicInteger messagesInFlight;
+
+  private final Timer handlerLatency;
+
+  BatchMetrics(MeterRegistry registry, String processor) {
+    this.registry = registry;
+    this.tags = Tags.of("processor", processor);
+    this.batchesReceived = Counter.builder("batch.batches.received")
+        .description("message batches received from the message source")
+        .tags(tags)
+        .register(registry);
+    this.rejections = Counter.builder("batch.scheduler.rejections")
+        .description("tasks the thread pool rejected and that waited for capacity")
+        .tags(tags)
+        .register(registry);
+    this.messagesInFlight = new AtomicInteger();
+    Gauge.builder("batch.messages.inflight", messagesInFlight, AtomicInteger::get)
+        .description("messages queued or being handled")
+        .tags(tags)
+        .register(registry);
+    this.handlerLatency = Timer.builder("batch.handler.latency")
+        .description("time the message handler takes per message")
+        .tags(tags)
+        .publishPercentileHistogram()
+        .register(registry);
+    FunctionCounter.builder("batch.logger.dropped", Logger.class, logger -> Logger.droppedEntries())
+        .description("log entries dropped because the async logger queue was full")
+        .register(registry);
+  }
+
+  /**
+   * Registers a gauge for the number of tasks waiting in the queue of the given thread pool.
+   */
+  void monitorQueueDepth(ThreadPoolExecutor executor) {
+    Gauge.builder("batch.scheduler.queue.depth", executor, e -> e.getQueue().size())
+        .description("tasks waiting in the thread pool queue")
+        .tags(tags)
+        .register(registry);
+  }
+
+  void batchReceived() {
+    batchesReceived.increment();
+  }
+
+  void rejected() {
+    rejections.increment();
+  }
+
+  void messageQueued() {
+    messagesInFlight.incrementAndGet();
+  }
+
+  /**
+   * Times the handling of a message and marks it as no longer in flight afterwards.
+   */
+  <T> T handle(Supplier<T> handler) {
+    try {
+      return handlerLatency.record(handler);
+    } finally {
+      messagesInFlight.decrementAndGet();
+    }
+  }
+
+}
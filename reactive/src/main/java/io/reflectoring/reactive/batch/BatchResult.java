@@ -0,0 +1,47 @@
+package io.reflectoring.reactive.batch;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of handling all messages of a {@link MessageBatch}.
+ */
+class BatchResult {
+
+  private final MessageBatch batch;
+
+  private final List<Message> failedMessages;
+
+  BatchResult(MessageBatch batch, List<Message> failedMessages) {
+    this.batch = batch;
+    this.failedMessages = failedMessages;
+  }
+
+  public MessageBatch getBatch() {
+    return batch;
+  }
+
+  /**
+   * The messages for which the handler returned {@link MessageHandler.Result#FAILURE} or threw an
+   * exception, in no particular order.
+   */
+  public List<Message> getFailedMessages() {
+    return Collections.unmodifiableList(failedMessages);
+  }
+
+  public int getSucceeded() {
+    return batch.getMessages().size() - failedMessages.size();
+  }
+
+  public boolean isSuccessful() {
+    return failedMessages.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "BatchResult{" +
+        "succeeded=" + getSucceeded() +
+        ", failedMessages=" + failedMessages +
+        '}';
+  }
+}
@@ -0,0 +1,49 @@
+package io.reflectoring.reactive.batch;
+
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects the results of the messages of a single {@link MessageBatch}. The thread that records
+ * the last result calls the {@link BatchAcknowledgement}, so no thread waits for the batch to
+ * complete.
+ */
+class BatchTracker {
+
+  private final MessageBatch batch;
+
+  private final BatchAcknowledgement acknowledgement;
+
+  private final AtomicInteger remaining;
+
+  private final Queue<Message> failedMessages = new ConcurrentLinkedQueue<>();
+
+  BatchTracker(MessageBatch batch, BatchAcknowledgement acknowledgement) {
+    this.batch = batch;
+    this.acknowledgement = acknowledgement;
+    this.remaining = new AtomicInteger(batch.getMessages().size());
+    if (remaining.get() == 0) {
+      complete();
+    }
+  }
+
+  MessageBatch getBatch() {
+    return batch;
+  }
+
+  void record(Message message, MessageHandler.Result result) {
+    if (result != MessageHandler.Result.SUCCESS) {
+      failedMessages.add(message);
+    }
+    if (remaining.decrementAndGet() == 0) {
+      complete();
+    }
+  }
+
+  private void complete() {
+    acknowledgement.acknowledge(new BatchResult(batch, new ArrayList<>(failedMessages)));
+  }
+
+}
@@ -1,9 +1,98 @@
 package io.reflectoring.reactive.batch;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous logger. The calling thread only puts an entry into a bounded queue, formatting and
+ * writing to {@code System.out} happens on a background thread. If the queue is full, entries are
+ * dropped instead of blocking the caller.
+ */
 class Logger {
 
+  private static final int QUEUE_CAPACITY = 10_000;
+
+  private static final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+  private static final AtomicLong droppedEntries = new AtomicLong();
+
+  static {
+    Thread writerThread = new Thread(Logger::writeEntries, "async-logger");
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
   void log(String string) {
-    System.out.println(String.format("%s %s: %s", System.currentTimeMillis(), Thread.currentThread().getName(), string));
+    log(string, null);
+  }
+
+  /**
+   * Logs the message followed by the given argument. The argument is converted to a string on the
+   * logging thread, so it must not be modified after being logged.
+   */
+  void log(String string, Object argument) {
+    if (!queue.offer(new Entry(System.currentTimeMillis(), Thread.currentThread().getName(), string, argument))) {
+      droppedEntries.incrementAndGet();
+    }
+  }
+
+  /**
+   * The number of log entries dropped because the queue was full.
+   */
+  static long droppedEntries() {
+    return droppedEntries.get();
+  }
+
+  private static void writeEntries() {
+    Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+    StringBuilder line = new StringBuilder(256);
+    try {
+      while (true) {
+        Entry entry = queue.take();
+        do {
+          line.setLength(0);
+          entry.appendTo(line);
+          out.append(line);
+          entry = queue.poll();
+        } while (entry != null);
+        out.flush();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  private static class Entry {
+
+    private final long timestamp;
+
+    private final String threadName;
+
+    private final String message;
+
+    private final Object argument;
+
+    Entry(long timestamp, String threadName, String message, Object argument) {
+      this.timestamp = timestamp;
+      this.threadName = threadName;
+      this.message = message;
+      this.argument = argument;
+    }
+
+    void appendTo(StringBuilder line) {
+      line.append(timestamp).append(' ').append(threadName).append(": ").append(message);
+      if (argument != null) {
+        line.append(' ').append(argument);
+      }
+      line.append(System.lineSeparator());
+    }
   }
 
 }
@@ -1,17 +1,36 @@
 package io.reflectoring.reactive.batch;
 
+import java.util.Optional;
+
 class Message {
 
   private final String content;
 
+  private final String partitionKey;
+
   Message(String content) {
+    this(content, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param content      the content of the message.
+   * @param partitionKey messages with the same partition key are processed in order. May be null.
+   */
+  Message(String content, String partitionKey) {
     this.content = content;
+    this.partitionKey = partitionKey;
   }
 
   public String getContent() {
     return content;
   }
 
+  public Optional<String> getPartitionKey() {
+    return Optional.ofNullable(partitionKey);
+  }
+
   @Override
   public String toString() {
     return content;
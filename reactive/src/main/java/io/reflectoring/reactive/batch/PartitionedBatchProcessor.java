@@ -0,0 +1,74 @@
+package io.reflectoring.reactive.batch;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.concurrent.Executors;
+
+/**
+ * Processes messages in parallel while keeping the order of messages with the same partition key.
+ * Each partition key is hashed to one of {@code lanes} single-threaded schedulers. Messages without
+ * a partition key are distributed over the lanes round-robin.
+ */
+public class PartitionedBatchProcessor {
+
+  private final static Logger logger = new Logger();
+
+  private final int lanes;
+
+  private final int maxInFlight;
+
+  private final MessageHandler messageHandler;
+
+  private final MessageSource messageSource;
+
+  private int nextLane;
+
+  /**
+   * Constructor.
+   *
+   * @param lanes       the number of single-threaded lanes to process messages on.
+   * @param maxInFlight the maximum number of messages that are queued or being processed over all lanes.
+   */
+  PartitionedBatchProcessor(
+      MessageSource messageSource,
+      MessageHandler messageHandler,
+      int lanes,
+      int maxInFlight) {
+    this.messageSource = messageSource;
+    this.messageHandler = messageHandler;
+    this.lanes = lanes;
+    this.maxInFlight = maxInFlight;
+  }
+
+  void start() {
+
+    Scheduler[] schedulers = laneSchedulers(lanes);
+
+    messageSource.getMessageBatches()
+        .subscribeOn(Schedulers.from(Executors.newSingleThreadExecutor()))
+        .doOnNext(batch -> logger.log("received", batch))
+        .flatMap(batch -> Flowable.fromIterable(batch.getMessages()))
+        // the lane is chosen on the single source thread, so messages enter each lane in source order
+        .flatMapSingle(m -> Single.defer(() -> Single.just(m)
+            .map(messageHandler::handleMessage))
+            .subscribeOn(schedulers[lane(m)]), false, maxInFlight)
+        .subscribeWith(new SimpleSubscriber<>(maxInFlight, 1));
+  }
+
+  int lane(Message message) {
+    return message.getPartitionKey()
+        .map(key -> Math.floorMod(key.hashCode(), lanes))
+        .orElseGet(() -> nextLane = (nextLane + 1) % lanes);
+  }
+
+  private Scheduler[] laneSchedulers(int lanes) {
+    Scheduler[] schedulers = new Scheduler[lanes];
+    for (int i = 0; i < lanes; i++) {
+      schedulers[i] = Schedulers.from(Executors.newSingleThreadExecutor());
+    }
+    return schedulers;
+  }
+
+}
@@ -1,18 +1,26 @@
 package io.reflectoring.reactive.batch;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Scheduler;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ReactiveBatchProcessor {
 
   private final static Logger logger = new Logger();
 
+  private final static AtomicInteger instances = new AtomicInteger();
+
   private final int threads;
 
   private final int threadPoolQueueSize;
@@ -21,15 +29,32 @@ public class ReactiveBatchProcessor {
 
   private final MessageSource messageSource;
 
+  private final List<ExecutorService> executors = new CopyOnWriteArrayList<>();
+
+  private final String name;
+
+  private final BatchMetrics metrics;
+
   ReactiveBatchProcessor(
       MessageSource messageSource,
       MessageHandler messageHandler,
       int threads,
       int threadPoolQueueSize) {
+    this(messageSource, messageHandler, threads, threadPoolQueueSize, Metrics.globalRegistry);
+  }
+
+  ReactiveBatchProcessor(
+      MessageSource messageSource,
+      MessageHandler messageHandler,
+      int threads,
+      int threadPoolQueueSize,
+      MeterRegistry meterRegistry) {
     this.messageSource = messageSource;
     this.threads = threads;
     this.messageHandler = messageHandler;
     this.threadPoolQueueSize = threadPoolQueueSize;
+    this.name = "reactive-" + instances.incrementAndGet();
+    this.metrics = new BatchMetrics(meterRegistry, name);
   }
 
   void start() {
@@ -37,24 +62,48 @@ public class ReactiveBatchProcessor {
     Scheduler scheduler = threadPoolScheduler(threads, threadPoolQueueSize);
 
     messageSource.getMessageBatches()
-        .subscribeOn(Schedulers.from(Executors.newSingleThreadExecutor()))
-        .doOnNext(batch -> logger.log(batch.toString()))
+        .subscribeOn(Schedulers.from(track(Executors.newSingleThreadExecutor())))
+        .doOnNext(batch -> logger.log("received", batch))
+        .doOnNext(batch -> metrics.batchReceived())
         .flatMap(batch -> Flowable.fromIterable(batch.getMessages()))
+        .doOnNext(m -> metrics.messageQueued())
         .flatMapSingle(m -> Single.defer(() -> Single.just(m)
-            .map(messageHandler::handleMessage))
+            .map(message -> metrics.handle(() -> messageHandler.handleMessage(message))))
             .subscribeOn(scheduler))
         .subscribeWith(new SimpleSubscriber<>(threads, 1));
   }
 
+  /**
+   * Shuts down the thread pools this processor created. Messages already handed to a pool are
+   * still handled.
+   */
+  void stop() {
+    executors.forEach(ExecutorService::shutdown);
+  }
+
   private Scheduler threadPoolScheduler(int poolSize, int queueSize) {
-    return Schedulers.from(new ThreadPoolExecutor(
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(
         poolSize,
         poolSize,
         0L,
         TimeUnit.SECONDS,
         new LinkedBlockingDeque<>(queueSize),
-        new WaitForCapacityPolicy()
-    ));
+        new WaitForCapacityPolicy(metrics::rejected)
+    );
+    metrics.monitorQueueDepth(executor);
+    return Schedulers.from(track(executor));
+  }
+
+  /**
+   * The name of this processor, used as the {@code processor} tag of its metrics.
+   */
+  String getName() {
+    return name;
+  }
+
+  private <E extends ExecutorService> E track(E executor) {
+    executors.add(executor);
+    return executor;
   }
 
 }
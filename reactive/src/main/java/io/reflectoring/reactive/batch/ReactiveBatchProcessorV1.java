@@ -4,6 +4,9 @@ import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Scheduler;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -21,6 +24,8 @@ public class ReactiveBatchProcessorV1 {
 
   private final MessageSource messageSource;
 
+  private final List<ExecutorService> executors = new CopyOnWriteArrayList<>();
+
   public ReactiveBatchProcessorV1(
       MessageSource messageSource,
       MessageHandler messageHandler,
@@ -35,22 +40,35 @@ public class ReactiveBatchProcessorV1 {
   public void start() {
     // WARNING: this code doesn't work as expected
     messageSource.getMessageBatches()
-        .subscribeOn(Schedulers.from(Executors.newSingleThreadExecutor()))
-        .doOnNext(batch -> logger.log(batch.toString()))
+        .subscribeOn(Schedulers.from(track(Executors.newSingleThreadExecutor())))
+        .doOnNext(batch -> logger.log("received", batch))
         .flatMap(batch -> Flowable.fromIterable(batch.getMessages()))
         .flatMapSingle(m -> Single.just(messageHandler.handleMessage(m))
             .subscribeOn(threadPoolScheduler(threads, threadPoolQueueSize)))
         .subscribeWith(new SimpleSubscriber<>(threads, 1));
   }
 
+  /**
+   * Shuts down the thread pools this processor created. Messages already handed to a pool are
+   * still handled.
+   */
+  public void stop() {
+    executors.forEach(ExecutorService::shutdown);
+  }
+
   private Scheduler threadPoolScheduler(int poolSize, int queueSize) {
-    return Schedulers.from(new ThreadPoolExecutor(
+    return Schedulers.from(track(new ThreadPoolExecutor(
         poolSize,
         poolSize,
         0L,
         TimeUnit.SECONDS,
         new LinkedBlockingDeque<>(queueSize)
-    ));
+    )));
+  }
+
+  private <E extends ExecutorService> E track(E executor) {
+    executors.add(executor);
+    return executor;
   }
 
 }
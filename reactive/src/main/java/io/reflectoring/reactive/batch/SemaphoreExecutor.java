@@ -0,0 +1,45 @@
+package io.reflectoring.reactive.batch;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits the number of concurrently running tasks of an {@link Executor} with a {@link Semaphore}.
+ * Like the {@link WaitForCapacityPolicy}, the calling thread is blocked until there is capacity
+ * for another task.
+ */
+class SemaphoreExecutor implements Executor {
+
+  private final Executor delegate;
+
+  private final Semaphore permits;
+
+  SemaphoreExecutor(Executor delegate, int maxConcurrency) {
+    this.delegate = delegate;
+    this.permits = new Semaphore(maxConcurrency);
+  }
+
+  @Override
+  public void execute(Runnable runnable) {
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException(e);
+    }
+    try {
+      delegate.execute(() -> {
+        try {
+          runnable.run();
+        } finally {
+          permits.release();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+}
@@ -0,0 +1,70 @@
+package io.reflectoring.reactive.batch;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Processes each message on its own virtual thread. Instead of the size of a thread pool, the
+ * number of messages processed concurrently is limited by a semaphore, so message handlers that
+ * are blocked on I/O don't occupy a platform thread.
+ *
+ * <p>Virtual threads are available from Java 21 on. On older runtimes, this processor falls back
+ * to a cached pool of platform threads, which is still bounded by the semaphore.
+ */
+public class VirtualThreadBatchProcessor {
+
+  private final static Logger logger = new Logger();
+
+  private final int maxConcurrency;
+
+  private final MessageHandler messageHandler;
+
+  private final MessageSource messageSource;
+
+  VirtualThreadBatchProcessor(
+      MessageSource messageSource,
+      MessageHandler messageHandler,
+      int maxConcurrency) {
+    this.messageSource = messageSource;
+    this.messageHandler = messageHandler;
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  void start() {
+
+    Scheduler scheduler = Schedulers.from(new SemaphoreExecutor(threadPerTaskExecutor(), maxConcurrency));
+
+    messageSource.getMessageBatches()
+        .subscribeOn(Schedulers.from(Executors.newSingleThreadExecutor()))
+        .doOnNext(batch -> logger.log("received", batch))
+        .flatMap(batch -> Flowable.fromIterable(batch.getMessages()))
+        .flatMapSingle(m -> Single.defer(() -> Single.just(m)
+            .map(messageHandler::handleMessage))
+            .subscribeOn(scheduler))
+        .subscribeWith(new SimpleSubscriber<>(maxConcurrency, 1));
+  }
+
+  /**
+   * Returns {@code Executors.newVirtualThreadPerTaskExecutor()} if the runtime supports virtual
+   * threads. It's looked up reflectively because this module is compiled against Java 11.
+   */
+  static ExecutorService threadPerTaskExecutor() {
+    try {
+      return (ExecutorService) MethodHandles.publicLookup()
+          .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+          .invoke();
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      logger.log("virtual threads not supported, falling back to platform threads");
+      return Executors.newCachedThreadPool();
+    } catch (Throwable e) {
+      throw new IllegalStateException("could not create virtual thread executor", e);
+    }
+  }
+
+}
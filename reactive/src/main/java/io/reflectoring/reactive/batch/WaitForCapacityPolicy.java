@@ -6,8 +6,23 @@ import java.util.concurrent.ThreadPoolExecutor;
 
 class WaitForCapacityPolicy implements RejectedExecutionHandler {
 
+    private final Runnable onRejection;
+
+    WaitForCapacityPolicy() {
+        this(() -> {
+        });
+    }
+
+    /**
+     * @param onRejection called each time a task is rejected and has to wait for capacity.
+     */
+    WaitForCapacityPolicy(Runnable onRejection) {
+        this.onRejection = onRejection;
+    }
+
     @Override
     public void rejectedExecution(Runnable runnable, ThreadPoolExecutor threadPoolExecutor) {
+        onRejection.run();
         try {
             threadPoolExecutor.getQueue().put(runnable);
         } catch (InterruptedException e) {
@@ -0,0 +1,58 @@
+package io.reflectoring.reactive.batch;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class AcknowledgingBatchProcessorTest {
+
+  @Test
+  void eachBatchIsAcknowledgedOnceWithItsFailedMessages() {
+
+    int batches = 10;
+    int batchSize = 3;
+
+    List<BatchResult> results = new CopyOnWriteArrayList<>();
+    MessageHandler messageHandler = message -> {
+      if (message.getContent().endsWith("-2")) {
+        return MessageHandler.Result.FAILURE;
+      }
+      if (message.getContent().endsWith("-3")) {
+        throw new IllegalStateException("boom");
+      }
+      return MessageHandler.Result.SUCCESS;
+    };
+
+    AcknowledgingBatchProcessor processor = new AcknowledgingBatchProcessor(
+        new TestMessageSource(batches, batchSize),
+        messageHandler,
+        results::add,
+        2,
+        10);
+
+    processor.start();
+
+    await()
+        .atMost(10, TimeUnit.SECONDS)
+        .pollInterval(100, TimeUnit.MILLISECONDS)
+        .untilAsserted(() -> assertEquals(batches, results.size()));
+
+    for (BatchResult result : results) {
+      assertEquals(1, result.getSucceeded());
+      List<String> failed = result.getFailedMessages().stream()
+          .map(Message::getContent)
+          .sorted()
+          .collect(Collectors.toList());
+      assertEquals(2, failed.size());
+      assertTrue(failed.get(0).endsWith("-2"));
+      assertTrue(failed.get(1).endsWith("-3"));
+    }
+  }
+
+}
@@ -0,0 +1,161 @@
+package io.reflectoring.reactive.batch;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+class AdaptiveSubscriberTest {
+
+  private final AtomicLong requested = new AtomicLong();
+
+  private final AtomicInteger queueDepth = new AtomicInteger();
+
+  private final Subscription subscription = new Subscription() {
+    @Override
+    public void request(long n) {
+      requested.addAndGet(n);
+    }
+
+    @Override
+    public void cancel() {
+    }
+  };
+
+  private final AdaptiveSubscriber<String> subscriber = new AdaptiveSubscriber<>(
+      Runnable::run, message -> {
+  }, 4, 1, 8, 100, TimeUnit.MILLISECONDS, queueDepth::get, 10);
+
+  @Test
+  void windowGrowsWhileHandlersAreFast() {
+    subscriber.onSubscribe(subscription);
+    assertEquals(4, requested.get());
+
+    handle(4, 10);
+    assertEquals(5, subscriber.getWindow());
+    assertEquals(5, subscriber.getInFlight());
+
+    handle(100, 10);
+    assertEquals(8, subscriber.getWindow());
+  }
+
+  @Test
+  void windowShrinksWhenHandlersAreSlow() {
+    subscriber.onSubscribe(subscription);
+
+    handle(4, 500);
+    assertEquals(2, subscriber.getWindow());
+    assertEquals(3, subscriber.getInFlight());
+
+    handle(3, 500);
+    assertEquals(1, subscriber.getWindow());
+    assertEquals(1, subscriber.getInFlight());
+  }
+
+  @Test
+  void windowShrinksWhenQueueFillsUp() {
+    subscriber.onSubscribe(subscription);
+    queueDepth.set(11);
+
+    handle(4, 10);
+    assertEquals(2, subscriber.getWindow());
+  }
+
+  @Test
+  void dispatchedMessagesNeverExceedWindow() {
+    Queue<Runnable> pending = new ArrayDeque<>();
+    AtomicInteger maxPending = new AtomicInteger();
+    AtomicInteger handled = new AtomicInteger();
+    AtomicReference<AdaptiveSubscriber<Integer>> adaptive = new AtomicReference<>();
+    adaptive.set(new AdaptiveSubscriber<>(
+        task -> {
+          pending.add(task);
+          assertTrue(pending.size() <= adaptive.get().getWindow());
+          maxPending.accumulateAndGet(pending.size(), Math::max);
+        },
+        message -> handled.incrementAndGet(),
+        8, 1, 16, 1, TimeUnit.SECONDS, pending::size, 4));
+
+    Flowable.range(0, 1000).subscribe(adaptive.get());
+    while (!pending.isEmpty()) {
+      pending.poll().run();
+    }
+
+    assertEquals(1000, handled.get());
+    assertTrue(maxPending.get() <= 16);
+  }
+
+  @Test
+  void fastHandlersAtMaximumWindowDoNotBlockThePool() {
+    int threads = 2;
+    int queueSize = 2;
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        threads, threads, 0L, TimeUnit.SECONDS, new LinkedBlockingDeque<>(queueSize), new WaitForCapacityPolicy());
+    AtomicInteger handled = new AtomicInteger();
+    // the window starts and stays at its maximum, so every finished handler requests a message
+    // that the source emits on the pool thread
+    AdaptiveSubscriber<Integer> adaptive = new AdaptiveSubscriber<>(
+        executor,
+        message -> handled.incrementAndGet(),
+        threads + queueSize, threads + queueSize, threads + queueSize,
+        1, TimeUnit.SECONDS, () -> executor.getQueue().size(), queueSize);
+
+    try {
+      Flowable.range(0, 100_000).subscribe(adaptive);
+
+      await()
+          .atMost(10, TimeUnit.SECONDS)
+          .untilAsserted(() -> assertEquals(100_000, handled.get()));
+      assertEquals(threads + queueSize, adaptive.getWindow());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void allMessagesAreProcessed() {
+    int batches = 10;
+    int batchSize = 3;
+    TestMessageHandler messageHandler = new TestMessageHandler();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    AdaptiveBatchProcessor processor = new AdaptiveBatchProcessor(
+        new TestMessageSource(batches, batchSize),
+        messageHandler,
+        4,
+        10,
+        1000,
+        meterRegistry);
+
+    processor.start();
+
+    await()
+        .atMost(10, TimeUnit.SECONDS)
+        .pollInterval(1, TimeUnit.SECONDS)
+        .untilAsserted(() -> assertEquals(batches * batchSize, messageHandler.getProcessedMessages()));
+    double window = meterRegistry.get("batch.adaptive.window")
+        .tag("processor", processor.getName())
+        .gauge()
+        .value();
+    assertTrue(window >= 1);
+  }
+
+  private void handle(int count, long latencyMillis) {
+    for (int i = 0; i < count; i++) {
+      subscriber.onHandled(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+    }
+  }
+
+}
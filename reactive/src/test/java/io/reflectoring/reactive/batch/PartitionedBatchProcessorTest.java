@@ -0,0 +1,86 @@
+package io.reflectoring.reactive.batch;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class PartitionedBatchProcessorTest {
+
+  @Test
+  void messagesWithSameKeyAreProcessedInOrder() {
+
+    int batches = 10;
+    int batchSize = 8;
+    int keys = 4;
+    int lanes = 3;
+
+    MessageSource messageSource = () -> Flowable.range(1, batches)
+        .map(batchNumber -> {
+          List<Message> messages = new ArrayList<>();
+          for (int i = 1; i <= batchSize; i++) {
+            messages.add(new Message(String.format("%d-%d", batchNumber, i), "key-" + (i % keys)));
+          }
+          return new MessageBatch(messages);
+        });
+
+    Map<String, List<String>> processedByKey = new ConcurrentHashMap<>();
+    Set<String> threadNames = ConcurrentHashMap.newKeySet();
+    MessageHandler messageHandler = message -> {
+      sleep(ThreadLocalRandom.current().nextInt(5));
+      processedByKey
+          .computeIfAbsent(message.getPartitionKey().orElseThrow(), k -> Collections.synchronizedList(new ArrayList<>()))
+          .add(message.getContent());
+      threadNames.add(Thread.currentThread().getName());
+      return MessageHandler.Result.SUCCESS;
+    };
+
+    new PartitionedBatchProcessor(messageSource, messageHandler, lanes, 10).start();
+
+    await()
+        .atMost(10, TimeUnit.SECONDS)
+        .pollInterval(100, TimeUnit.MILLISECONDS)
+        .untilAsserted(() -> assertEquals(batches * batchSize,
+            processedByKey.values().stream().mapToInt(List::size).sum()));
+
+    processedByKey.forEach((key, contents) -> {
+      List<String> expected = new ArrayList<>();
+      for (int batch = 1; batch <= batches; batch++) {
+        for (int i = 1; i <= batchSize; i++) {
+          if (key.equals("key-" + (i % keys))) {
+            expected.add(String.format("%d-%d", batch, i));
+          }
+        }
+      }
+      assertEquals(expected, contents);
+    });
+    assertTrue(threadNames.size() > 1);
+  }
+
+  @Test
+  void sameKeyIsAlwaysMappedToSameLane() {
+    PartitionedBatchProcessor processor = new PartitionedBatchProcessor(null, null, 4, 10);
+    int lane = processor.lane(new Message("1", "key"));
+    assertEquals(lane, processor.lane(new Message("2", "key")));
+    assertTrue(lane >= 0 && lane < 4);
+  }
+
+  private void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+}
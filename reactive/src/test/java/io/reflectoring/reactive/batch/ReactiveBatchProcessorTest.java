@@ -2,7 +2,9 @@ package io.reflectoring.reactive.batch;
 
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 
@@ -35,4 +37,75 @@ class ReactiveBatchProcessorTest {
     assertEquals(threads, messageHandler.threadNames().size());
   }
 
+  @Test
+  void metricsAreRecorded() {
+
+    int batches = 4;
+    int batchSize = 3;
+    int threads = 2;
+    int threadPoolQueueSize = 1;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    TestMessageHandler messageHandler = new TestMessageHandler();
+
+    ReactiveBatchProcessor processor = new ReactiveBatchProcessor(
+        new TestMessageSource(batches, batchSize),
+        messageHandler,
+        threads,
+        threadPoolQueueSize,
+        meterRegistry);
+
+    processor.start();
+    String name = processor.getName();
+
+    await()
+        .atMost(10, TimeUnit.SECONDS)
+        .pollInterval(100, TimeUnit.MILLISECONDS)
+        .untilAsserted(() -> {
+          assertEquals(batches * batchSize, meterRegistry.get("batch.handler.latency").tag("processor", name).timer().count());
+          assertEquals(0, meterRegistry.get("batch.messages.inflight").tag("processor", name).gauge().value());
+        });
+
+    assertEquals(batches, meterRegistry.get("batch.batches.received").tag("processor", name).counter().count());
+    assertEquals(0, meterRegistry.get("batch.scheduler.queue.depth").tag("processor", name).gauge().value());
+    assertTrue(meterRegistry.get("batch.scheduler.rejections").tag("processor", name).counter().count() > 0);
+  }
+
+  @Test
+  void processorsSharingARegistryHaveSeparateMetrics() {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    TestMessageHandler firstHandler = new TestMessageHandler();
+    TestMessageHandler secondHandler = new TestMessageHandler();
+
+    ReactiveBatchProcessor first = new ReactiveBatchProcessor(
+        new TestMessageSource(2, 3),
+        firstHandler,
+        2,
+        10,
+        meterRegistry);
+    ReactiveBatchProcessor second = new ReactiveBatchProcessor(
+        new TestMessageSource(5, 3),
+        secondHandler,
+        2,
+        10,
+        meterRegistry);
+
+    first.start();
+    second.start();
+
+    await()
+        .atMost(10, TimeUnit.SECONDS)
+        .pollInterval(100, TimeUnit.MILLISECONDS)
+        .untilAsserted(() -> {
+          assertEquals(6, meterRegistry.get("batch.handler.latency").tag("processor", first.getName()).timer().count());
+          assertEquals(15, meterRegistry.get("batch.handler.latency").tag("processor", second.getName()).timer().count());
+        });
+
+    assertEquals(2, meterRegistry.get("batch.batches.received").tag("processor", first.getName()).counter().count());
+    assertEquals(5, meterRegistry.get("batch.batches.received").tag("processor", second.getName()).counter().count());
+    assertEquals(2, meterRegistry.get("batch.scheduler.queue.depth").gauges().size());
+    assertEquals(2, meterRegistry.get("batch.messages.inflight").gauges().size());
+  }
+
 }
@@ -1,7 +1,7 @@
 package io.reflectoring.reactive.batch;
 
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -9,14 +9,14 @@ class TestMessageHandler implements MessageHandler {
 
   private final AtomicInteger processedMessages = new AtomicInteger();
 
-  private final AtomicReference<Set<String>> threadNames = new AtomicReference<>(new HashSet<>());
+  private final AtomicReference<Set<String>> threadNames = new AtomicReference<>(ConcurrentHashMap.newKeySet());
 
   private Logger logger = new Logger();
 
   @Override
   public Result handleMessage(Message message) {
     sleep(500);
-    logger.log(String.format("processed message %s", message));
+    logger.log("processed message", message);
     threadNames.get().add(Thread.currentThread().getName());
     processedMessages.addAndGet(1);
     return Result.SUCCESS;
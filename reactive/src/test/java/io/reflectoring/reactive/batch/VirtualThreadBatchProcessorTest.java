@@ -0,0 +1,67 @@
+package io.reflectoring.reactive.batch;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadBatchProcessorTest {
+
+  private static final int BATCHES = 4;
+
+  private static final int BATCH_SIZE = 5;
+
+  @Test
+  void allMessagesAreProcessed() {
+    MessageSource messageSource = new TestMessageSource(BATCHES, BATCH_SIZE);
+    TestMessageHandler messageHandler = new TestMessageHandler();
+
+    VirtualThreadBatchProcessor processor = new VirtualThreadBatchProcessor(
+        messageSource,
+        messageHandler,
+        5);
+
+    processor.start();
+
+    await()
+        .atMost(10, TimeUnit.SECONDS)
+        .pollInterval(100, TimeUnit.MILLISECONDS)
+        .untilAsserted(() -> assertEquals(BATCHES * BATCH_SIZE, messageHandler.getProcessedMessages()));
+  }
+
+  @Test
+  void blockingMessagesAreProcessedFasterThanWithThreadPool() {
+    int threads = 4;
+    int threadPoolQueueSize = 10;
+    int maxConcurrency = BATCHES * BATCH_SIZE;
+
+    TestMessageHandler threadPoolHandler = new TestMessageHandler();
+    long threadPoolMillis = measure(threadPoolHandler, () -> new ReactiveBatchProcessor(
+        new TestMessageSource(BATCHES, BATCH_SIZE),
+        threadPoolHandler,
+        threads,
+        threadPoolQueueSize).start());
+
+    TestMessageHandler virtualThreadHandler = new TestMessageHandler();
+    long virtualThreadMillis = measure(virtualThreadHandler, () -> new VirtualThreadBatchProcessor(
+        new TestMessageSource(BATCHES, BATCH_SIZE),
+        virtualThreadHandler,
+        maxConcurrency).start());
+
+    assertTrue(virtualThreadMillis < threadPoolMillis,
+        String.format("virtual threads took %d ms, thread pool took %d ms", virtualThreadMillis, threadPoolMillis));
+  }
+
+  private long measure(TestMessageHandler messageHandler, Runnable processor) {
+    long start = System.currentTimeMillis();
+    processor.run();
+    await()
+        .atMost(20, TimeUnit.SECONDS)
+        .pollInterval(50, TimeUnit.MILLISECONDS)
+        .untilAsserted(() -> assertEquals(BATCHES * BATCH_SIZE, messageHandler.getProcessedMessages()));
+    return System.currentTimeMillis() - start;
+  }
+
+}
@@ -0,0 +1,98 @@
+package io.reflectoring.boundaries.billing.internal.database.internal;
+
+import io.reflectoring.boundaries.BoundariesApplication;
+import io.reflectoring.boundaries.billing.internal.database.api.LineItem;
+import io.reflectoring.boundaries.billing.internal.database.api.WriteLineItems;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Measures how long it takes to load {@code lineItems} line items into the database, either with
+ * one call to {@link WriteLineItems#saveLineItems} or with one call and transaction per line item.
+ * Both update the daily totals.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LineItemIngestionBenchmark {
+
+  @Param({"1000000"})
+  private int lineItems;
+
+  @Param({"5000"})
+  private int chunkSize;
+
+  private ConfigurableApplicationContext context;
+  private WriteLineItems writeLineItems;
+  private List<LineItem> items;
+
+  @Setup(Level.Trial)
+  public void startApplication() {
+    context = new SpringApplicationBuilder(BoundariesApplication.class)
+        .web(WebApplicationType.NONE)
+        .run("--billing.line-items.chunk-size=" + chunkSize);
+    writeLineItems = context.getBean(WriteLineItems.class);
+
+    Random random = new Random(42);
+    items = new ArrayList<>(lineItems);
+    for (int i = 0; i < lineItems; i++) {
+      items.add(new LineItem(
+          (long) random.nextInt(10_000),
+          "item " + i,
+          random.nextInt(10_000) / 100d,
+          LocalDate.now().minusDays(random.nextInt(365))));
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void deleteLineItems() {
+    EntityManager entityManager = context.getBean(EntityManager.class);
+    context.getBean(TransactionTemplate.class).execute(status -> {
+      entityManager.createQuery("delete from DailyTotalJpaEntity").executeUpdate();
+      return entityManager.createQuery("delete from LineItemJpaEntity").executeUpdate();
+    });
+  }
+
+  @TearDown(Level.Trial)
+  public void stopApplication() {
+    context.close();
+  }
+
+  @Benchmark
+  public void bulk() {
+    writeLineItems.saveLineItems(items);
+  }
+
+  @Benchmark
+  public void perRow() {
+    for (LineItem item : items) {
+      writeLineItems.saveLineItems(Collections.singletonList(item));
+    }
+  }
+
+}
@@ -0,0 +1,94 @@
+package io.reflectoring.boundaries.billing.internal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reflectoring.boundaries.billing.internal.database.api.LineItem;
+import io.reflectoring.boundaries.billing.internal.database.api.ReadLineItems;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Exports the line items of an invoice as CSV or newline-delimited JSON. The line items are written
+ * to the response while they are read from the database, so memory use doesn't depend on the number
+ * of line items.
+ */
+@RestController
+@RequiredArgsConstructor
+class InvoiceExportController {
+
+  static final String TEXT_CSV = "text/csv";
+  static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+  private final ReadLineItems readLineItems;
+  private final ObjectMapper objectMapper;
+
+  @GetMapping(path = "/users/{userId}/invoice/line-items", produces = TEXT_CSV)
+  StreamingResponseBody exportCsv(
+      @PathVariable Long userId,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    return out -> {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+      writer.write("userId,name,amount,date\n");
+      readLineItems.forEachLineItemForUser(userId, from, to, lineItem -> write(writer, toCsv(lineItem)));
+      writer.flush();
+    };
+  }
+
+  @GetMapping(path = "/users/{userId}/invoice/line-items", produces = APPLICATION_NDJSON)
+  StreamingResponseBody exportNdjson(
+      @PathVariable Long userId,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    return out -> {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+      readLineItems.forEachLineItemForUser(userId, from, to, lineItem -> write(writer, toJson(lineItem)));
+      writer.flush();
+    };
+  }
+
+  private String toCsv(LineItem lineItem) {
+    return lineItem.getUserId() + ","
+        + escapeCsv(lineItem.getName()) + ","
+        + lineItem.getAmount() + ","
+        + lineItem.getDate() + "\n";
+  }
+
+  private String escapeCsv(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+      return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+    return value;
+  }
+
+  private String toJson(LineItem lineItem) {
+    try {
+      return objectMapper.writeValueAsString(lineItem) + "\n";
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void write(Writer writer, String line) {
+    try {
+      writer.write(line);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+}
@@ -2,9 +2,21 @@ package io.reflectoring.boundaries.billing.internal.database.api;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ReadLineItems {
 
   List<LineItem> getLineItemsForUser(Long userId, LocalDate startDate, LocalDate endDate);
 
+  /**
+   * Passes the user's line items between the given dates, inclusive, to the consumer, ordered by
+   * date. The line items are read from the database while they are consumed, not loaded all at once.
+   */
+  void forEachLineItemForUser(Long userId, LocalDate startDate, LocalDate endDate, Consumer<LineItem> consumer);
+
+  /**
+   * Returns the sum of the amounts of the user's line items between the given dates, inclusive.
+   */
+  double getTotalAmountForUser(Long userId, LocalDate startDate, LocalDate endDate);
+
 }
@@ -3,22 +3,82 @@ package io.reflectoring.boundaries.billing.internal.database.internal;
 import io.reflectoring.boundaries.billing.internal.database.api.LineItem;
 import io.reflectoring.boundaries.billing.internal.database.api.ReadLineItems;
 import io.reflectoring.boundaries.billing.internal.database.api.WriteLineItems;
+import java.sql.Date;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Component
-@RequiredArgsConstructor
 class BillingDatabase implements WriteLineItems, ReadLineItems {
 
+  // adds to the total of a user and day, or creates it, in one statement per total; an existing row
+  // is locked while it is updated, but two chunks that create the same total at the same time both
+  // insert it, so one of them fails with a duplicate key and is retried
+  private static final String ADD_TO_DAILY_TOTAL = "merge into daily_total t using dual"
+      + " on (t.user_id = ? and t.date = ?)"
+      + " when matched then update set t.amount = t.amount + ?"
+      + " when not matched then insert (user_id, date, amount) values (?, ?, ?)";
+
+  private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+  private static final String REBUILD_DAILY_TOTALS = "insert into daily_total (user_id, date, amount)"
+      + " select user_id, date, sum(amount) from line_item_jpa_entity group by user_id, date";
+
   private final LineItemRepository lineItemRepository;
+  private final DailyTotalRepository dailyTotalRepository;
+  private final EntityManager entityManager;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+
+  BillingDatabase(
+      LineItemRepository lineItemRepository,
+      DailyTotalRepository dailyTotalRepository,
+      EntityManager entityManager,
+      JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      @Value("${billing.line-items.chunk-size:5000}") int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("chunk size must be positive");
+    }
+    this.lineItemRepository = lineItemRepository;
+    this.dailyTotalRepository = dailyTotalRepository;
+    this.entityManager = entityManager;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.chunkSize = chunkSize;
+  }
 
+  /**
+   * Inserts the line items in chunks of {@code billing.line-items.chunk-size}, each in its own
+   * transaction. Within a chunk, Hibernate sends the inserts as JDBC batches and takes the ids from
+   * a pre-allocated block of the sequence, so there is no round trip per line item. The daily totals
+   * of the users are updated in the same transaction with one JDBC batch per chunk. A chunk that
+   * collides with another chunk creating the same daily total is rolled back and saved again.
+   */
   @Override
   public void saveLineItems(List<LineItem> lineItems) {
-    for (LineItem lineItem : lineItems) {
-      lineItemRepository.save(LineItemJpaEntity.fromDomainObject(lineItem));
+    for (int start = 0; start < lineItems.size(); start += chunkSize) {
+      List<LineItem> chunk = lineItems.subList(start, Math.min(start + chunkSize, lineItems.size()));
+      for (int attempt = 1; ; attempt++) {
+        try {
+          saveChunk(chunk);
+          break;
+        } catch (DuplicateKeyException e) {
+          if (attempt == MAX_CHUNK_ATTEMPTS) {
+            throw e;
+          }
+        }
+      }
     }
   }
 
@@ -28,4 +88,62 @@ class BillingDatabase implements WriteLineItems, ReadLineItems {
         .map(LineItemJpaEntity::toDomainObject)
         .collect(Collectors.toList());
   }
+
+  @Override
+  public void forEachLineItemForUser(Long userId, LocalDate startDate, LocalDate endDate, Consumer<LineItem> consumer) {
+    transactionTemplate.execute(status -> {
+      try (Stream<LineItemJpaEntity> lineItems =
+          lineItemRepository.streamByUserIdAndDateBetweenOrderByDate(userId, startDate, endDate)) {
+        lineItems.forEach(lineItem -> {
+          consumer.accept(lineItem.toDomainObject());
+          // keeps the persistence context from growing with the number of line items
+          entityManager.detach(lineItem);
+        });
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public double getTotalAmountForUser(Long userId, LocalDate startDate, LocalDate endDate) {
+    return dailyTotalRepository.sumAmountByUserIdAndDateBetween(userId, startDate, endDate);
+  }
+
+  /**
+   * Recomputes the daily totals from all line items, for line items that were written before the
+   * daily totals existed or bypassed {@link #saveLineItems(List)}.
+   */
+  void rebuildDailyTotals() {
+    transactionTemplate.execute(status -> {
+      jdbcTemplate.update("delete from daily_total");
+      return jdbcTemplate.update(REBUILD_DAILY_TOTALS);
+    });
+  }
+
+  private void saveChunk(List<LineItem> chunk) {
+    transactionTemplate.execute(status -> {
+      for (LineItem lineItem : chunk) {
+        entityManager.persist(LineItemJpaEntity.fromDomainObject(lineItem));
+      }
+      addToDailyTotals(chunk);
+      entityManager.flush();
+      entityManager.clear();
+      return null;
+    });
+  }
+
+  private void addToDailyTotals(List<LineItem> lineItems) {
+    Map<DailyTotalId, Double> amounts = lineItems.stream()
+        .collect(Collectors.groupingBy(
+            lineItem -> new DailyTotalId(lineItem.getUserId(), lineItem.getDate()),
+            Collectors.summingDouble(LineItem::getAmount)));
+    List<Object[]> rows = amounts.entrySet().stream()
+        .map(total -> {
+          Long userId = total.getKey().getUserId();
+          Date date = Date.valueOf(total.getKey().getDate());
+          return new Object[] {userId, date, total.getValue(), userId, date, total.getValue()};
+        })
+        .collect(Collectors.toList());
+    jdbcTemplate.batchUpdate(ADD_TO_DAILY_TOTAL, rows);
+  }
 }
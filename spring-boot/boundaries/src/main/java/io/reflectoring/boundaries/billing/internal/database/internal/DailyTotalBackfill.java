@@ -0,0 +1,28 @@
+package io.reflectoring.boundaries.billing.internal.database.internal;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the daily totals from the existing line items on startup. Enabled once with
+ * {@code billing.daily-totals.backfill=true} after upgrading a database that has line items but no
+ * daily totals yet.
+ */
+@Component
+@ConditionalOnProperty(name = "billing.daily-totals.backfill", havingValue = "true")
+class DailyTotalBackfill implements ApplicationRunner {
+
+  private final BillingDatabase billingDatabase;
+
+  DailyTotalBackfill(BillingDatabase billingDatabase) {
+    this.billingDatabase = billingDatabase;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    billingDatabase.rebuildDailyTotals();
+  }
+
+}
@@ -0,0 +1,17 @@
+package io.reflectoring.boundaries.billing.internal.database.internal;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+class DailyTotalId implements Serializable {
+
+  private Long userId;
+  private LocalDate date;
+
+}
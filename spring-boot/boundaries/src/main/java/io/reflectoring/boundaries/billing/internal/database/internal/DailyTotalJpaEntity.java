@@ -0,0 +1,32 @@
+package io.reflectoring.boundaries.billing.internal.database.internal;
+
+import java.time.LocalDate;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sum of the amounts of all line items of a user on one day, kept up to date when line items are
+ * saved, so that invoices don't need to read the line items themselves.
+ */
+@Entity
+@Table(name = "daily_total")
+@IdClass(DailyTotalId.class)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+class DailyTotalJpaEntity {
+
+  @Id
+  @Column(name = "user_id")
+  private Long userId;
+  @Id
+  private LocalDate date;
+  private double amount;
+
+}
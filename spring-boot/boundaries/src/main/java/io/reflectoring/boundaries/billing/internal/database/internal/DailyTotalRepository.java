@@ -0,0 +1,17 @@
+package io.reflectoring.boundaries.billing.internal.database.internal;
+
+import java.time.LocalDate;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+interface DailyTotalRepository extends CrudRepository<DailyTotalJpaEntity, DailyTotalId> {
+
+  @Query("select coalesce(sum(t.amount), 0) from DailyTotalJpaEntity t"
+      + " where t.userId = :userId and t.date between :startDate and :endDate")
+  double sumAmountByUserIdAndDateBetween(
+      @Param("userId") Long userId,
+      @Param("startDate") LocalDate startDate,
+      @Param("endDate") LocalDate endDate);
+
+}
@@ -4,7 +4,9 @@ import io.reflectoring.boundaries.billing.internal.database.api.LineItem;
 import java.time.LocalDate;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,7 +18,10 @@ import lombok.NoArgsConstructor;
 class LineItemJpaEntity {
 
   @Id
-  @GeneratedValue
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "line_item_sequence")
+  // hands out ids in blocks, matching the JDBC batch size in application.properties
+  @SequenceGenerator(name = "line_item_sequence", allocationSize = 100)
+  private Long id;
   private Long userId;
   private String name;
   private Double amount;
@@ -24,6 +29,7 @@ class LineItemJpaEntity {
 
   static LineItemJpaEntity fromDomainObject(LineItem lineItem) {
     return new LineItemJpaEntity(
+        null,
         lineItem.getUserId(),
         lineItem.getName(),
         lineItem.getAmount(),
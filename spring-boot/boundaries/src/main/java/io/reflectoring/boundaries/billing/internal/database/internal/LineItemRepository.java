@@ -1,11 +1,27 @@
 package io.reflectoring.boundaries.billing.internal.database.internal;
 
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
+
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
 interface LineItemRepository extends CrudRepository<LineItemJpaEntity, Long> {
 
   List<LineItemJpaEntity> findByUserIdAndDateBetween(Long userId, LocalDate startDate, LocalDate endDate);
 
+  /**
+   * Reads the line items through a database cursor, 1000 rows at a time. Must be
+   * called in a transaction and the stream must be closed.
+   */
+  @QueryHints({
+      @QueryHint(name = FETCH_SIZE, value = "1000"),
+      @QueryHint(name = READ_ONLY, value = "true")
+  })
+  Stream<LineItemJpaEntity> streamByUserIdAndDateBetweenOrderByDate(Long userId, LocalDate startDate, LocalDate endDate);
+
 }
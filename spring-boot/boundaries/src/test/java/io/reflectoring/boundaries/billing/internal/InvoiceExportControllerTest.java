@@ -0,0 +1,77 @@
+package io.reflectoring.boundaries.billing.internal;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.reflectoring.boundaries.billing.internal.database.api.LineItem;
+import io.reflectoring.boundaries.billing.internal.database.api.WriteLineItems;
+import java.time.LocalDate;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+// the scheduled line item job runs in every context, and contexts sharing a database hand out the
+// same line item ids
+@SpringBootTest(properties = "spring.datasource.generate-unique-name=true")
+@AutoConfigureMockMvc
+class InvoiceExportControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private WriteLineItems writeLineItems;
+
+  @Test
+  void exportsCsv() throws Exception {
+    saveLineItems(7L);
+
+    MvcResult result = mockMvc.perform(get("/users/7/invoice/line-items")
+        .param("from", "2020-03-01")
+        .param("to", "2020-03-31")
+        .accept(InvoiceExportController.TEXT_CSV))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().string(
+            "userId,name,amount,date\n"
+                + "7,\"butter, salted\",1.75,2020-03-01\n"
+                + "7,bread,2.5,2020-03-02\n"));
+  }
+
+  @Test
+  void exportsNdjson() throws Exception {
+    saveLineItems(8L);
+
+    MvcResult result = mockMvc.perform(get("/users/8/invoice/line-items")
+        .param("from", "2020-03-01")
+        .param("to", "2020-03-31")
+        .accept(InvoiceExportController.APPLICATION_NDJSON))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().string(
+            "{\"userId\":8,\"name\":\"butter, salted\",\"amount\":1.75,\"date\":\"2020-03-01\"}\n"
+                + "{\"userId\":8,\"name\":\"bread\",\"amount\":2.5,\"date\":\"2020-03-02\"}\n"));
+  }
+
+  private void saveLineItems(Long userId) {
+    writeLineItems.saveLineItems(Arrays.asList(
+        new LineItem(userId, "bread", 2.5d, LocalDate.of(2020, 3, 2)),
+        new LineItem(userId, "butter, salted", 1.75d, LocalDate.of(2020, 3, 1)),
+        new LineItem(userId, "milk", 1d, LocalDate.of(2020, 4, 1))
+    ));
+  }
+
+}
@@ -0,0 +1,135 @@
+package io.reflectoring.boundaries.billing.internal.database.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import io.reflectoring.boundaries.billing.internal.database.api.LineItem;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = {
+    "billing.line-items.chunk-size=2",
+    // the smaller chunk size starts a second application context, which needs its own database
+    "spring.datasource.generate-unique-name=true"})
+class BillingDatabaseTest {
+
+  private static final LocalDate MARCH_1 = LocalDate.of(2020, 3, 1);
+  private static final LocalDate MARCH_2 = LocalDate.of(2020, 3, 2);
+  private static final LocalDate MARCH_3 = LocalDate.of(2020, 3, 3);
+
+  @Autowired
+  private BillingDatabase billingDatabase;
+
+  @Autowired
+  private LineItemRepository lineItemRepository;
+
+  @Autowired
+  private DailyTotalRepository dailyTotalRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Test
+  void sumsLineItemsOfOneDayAcrossChunks() {
+    billingDatabase.saveLineItems(Arrays.asList(
+        new LineItem(101L, "bread", 2.5, MARCH_1),
+        new LineItem(101L, "butter", 1.75, MARCH_1),
+        new LineItem(101L, "milk", 1.0, MARCH_1),
+        new LineItem(102L, "cheese", 4.0, MARCH_1),
+        new LineItem(101L, "eggs", 3.0, MARCH_2)));
+
+    assertThat(dailyTotal(101L, MARCH_1)).isCloseTo(5.25, within(1e-9));
+    assertThat(dailyTotal(101L, MARCH_2)).isCloseTo(3.0, within(1e-9));
+    assertThat(dailyTotal(102L, MARCH_1)).isCloseTo(4.0, within(1e-9));
+  }
+
+  @Test
+  void addsRepeatedSavesToExistingTotals() {
+    billingDatabase.saveLineItems(Collections.singletonList(new LineItem(201L, "bread", 2.5, MARCH_1)));
+    billingDatabase.saveLineItems(Arrays.asList(
+        new LineItem(201L, "butter", 1.75, MARCH_1),
+        new LineItem(201L, "milk", 1.0, MARCH_2)));
+    billingDatabase.saveLineItems(Collections.singletonList(new LineItem(201L, "eggs", 3.0, MARCH_1)));
+
+    assertThat(dailyTotal(201L, MARCH_1)).isCloseTo(7.25, within(1e-9));
+    assertThat(billingDatabase.getTotalAmountForUser(201L, MARCH_1, MARCH_2)).isCloseTo(8.25, within(1e-9));
+  }
+
+  @Test
+  void includesBothEndsOfTheRange() {
+    billingDatabase.saveLineItems(Arrays.asList(
+        new LineItem(301L, "before", 100.0, MARCH_1.minusDays(1)),
+        new LineItem(301L, "first", 1.0, MARCH_1),
+        new LineItem(301L, "middle", 2.0, MARCH_2),
+        new LineItem(301L, "last", 4.0, MARCH_3),
+        new LineItem(301L, "after", 100.0, MARCH_3.plusDays(1)),
+        new LineItem(302L, "other user", 100.0, MARCH_2)));
+
+    assertThat(billingDatabase.getTotalAmountForUser(301L, MARCH_1, MARCH_3)).isCloseTo(7.0, within(1e-9));
+    assertThat(billingDatabase.getTotalAmountForUser(301L, MARCH_2, MARCH_2)).isCloseTo(2.0, within(1e-9));
+    assertThat(billingDatabase.getTotalAmountForUser(301L, MARCH_3.plusDays(2), MARCH_3.plusDays(9))).isZero();
+  }
+
+  @Test
+  void retriesChunkThatCollidesWithConcurrentlyCreatedTotal() throws Exception {
+    CountDownLatch inserted = new CountDownLatch(1);
+    // another transaction creates the same daily total and commits while the chunk waits for its row
+    CompletableFuture<Void> concurrentChunk = CompletableFuture.runAsync(() ->
+        transactionTemplate.execute(status -> {
+          jdbcTemplate.update("insert into daily_total (user_id, date, amount) values (?, ?, ?)",
+              501L, Date.valueOf(MARCH_1), 10.0);
+          inserted.countDown();
+          sleep(200);
+          return null;
+        }));
+    assertThat(inserted.await(5, TimeUnit.SECONDS)).isTrue();
+
+    billingDatabase.saveLineItems(Collections.singletonList(new LineItem(501L, "bread", 2.5, MARCH_1)));
+    concurrentChunk.get(5, TimeUnit.SECONDS);
+
+    assertThat(dailyTotal(501L, MARCH_1)).isCloseTo(12.5, within(1e-9));
+    assertThat(billingDatabase.getLineItemsForUser(501L, MARCH_1, MARCH_1)).hasSize(1);
+  }
+
+  @Test
+  void rebuildsDailyTotalsFromLineItems() {
+    lineItemRepository.save(new LineItemJpaEntity(null, 401L, "bread", 2.5, MARCH_1));
+    lineItemRepository.save(new LineItemJpaEntity(null, 401L, "butter", 1.75, MARCH_1));
+    lineItemRepository.save(new LineItemJpaEntity(null, 401L, "milk", 1.0, MARCH_2));
+    assertThat(billingDatabase.getTotalAmountForUser(401L, MARCH_1, MARCH_2)).isZero();
+
+    billingDatabase.rebuildDailyTotals();
+    billingDatabase.rebuildDailyTotals();
+
+    assertThat(dailyTotal(401L, MARCH_1)).isCloseTo(4.25, within(1e-9));
+    assertThat(dailyTotal(401L, MARCH_2)).isCloseTo(1.0, within(1e-9));
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private double dailyTotal(Long userId, LocalDate date) {
+    return dailyTotalRepository.findById(new DailyTotalId(userId, date))
+        .map(DailyTotalJpaEntity::getAmount)
+        .orElseThrow(() -> new AssertionError("no daily total for user " + userId + " on " + date));
+  }
+
+}
@@ -0,0 +1,20 @@
+package io.reflectoring.cache.configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Message published to all nodes when an entry of a {@link TwoLevelCache} changes, so they drop it
+ * from their local cache. A {@code null} key means the whole cache was cleared.
+ */
+@Data
+@AllArgsConstructor
+class CacheInvalidation implements Serializable {
+
+    private UUID sourceId;
+    private String cacheName;
+    private Object key;
+}
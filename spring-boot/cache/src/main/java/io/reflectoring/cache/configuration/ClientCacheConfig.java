@@ -3,6 +3,9 @@ package io.reflectoring.cache.configuration;
 
 import com.hazelcast.client.config.ClientConfig;
 import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.SerializerConfig;
+import io.reflectoring.cache.dao.Car;
+import io.reflectoring.cache.serializer.CompactCarSerializer;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,6 +21,7 @@ public class ClientCacheConfig {
     ClientConfig config() {
         ClientConfig clientConfig = new ClientConfig();
         clientConfig.addNearCacheConfig(nearCacheConfig());
+        clientConfig.getSerializationConfig().addSerializerConfig(serializerConfig());
         return clientConfig;
     }
 
@@ -27,4 +31,10 @@ public class ClientCacheConfig {
         nearCacheConfig.setTimeToLiveSeconds(300);
         return nearCacheConfig;
     }
+
+    private SerializerConfig serializerConfig() {
+        return new SerializerConfig()
+                .setImplementation(CompactCarSerializer.create())
+                .setTypeClass(Car.class);
+    }
 }
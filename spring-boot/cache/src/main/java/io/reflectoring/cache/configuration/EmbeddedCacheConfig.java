@@ -3,6 +3,9 @@ package io.reflectoring.cache.configuration;
 
 import com.hazelcast.config.Config;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.SerializerConfig;
+import io.reflectoring.cache.dao.Car;
+import io.reflectoring.cache.serializer.CompactCarSerializer;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -22,6 +25,13 @@ public class EmbeddedCacheConfig {
         mapConfig.setTimeToLiveSeconds(300);
         config.getMapConfigs().put("cars", mapConfig);
 
+        config.getSerializationConfig().addSerializerConfig(serializerConfig());
         return config;
     }
+
+    private SerializerConfig serializerConfig() {
+        return new SerializerConfig()
+                .setImplementation(CompactCarSerializer.create())
+                .setTypeClass(Car.class);
+    }
 }
@@ -0,0 +1,59 @@
+package io.reflectoring.cache.configuration;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spring.cache.HazelcastCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * {@link HazelcastCache} that can also tell when an entry expires, which is needed to refresh
+ * entries before they expire.
+ */
+class ExpiringHazelcastCache extends HazelcastCache {
+
+    ExpiringHazelcastCache(IMap<Object, Object> map) {
+        super(map);
+    }
+
+    /**
+     * Returns the cached value and its expiration time, or {@code null} if there is no entry.
+     */
+    ExpiringValue getWithExpiration(Object key) {
+        EntryView<Object, Object> entryView = getNativeCache().getEntryView(key);
+        if (entryView == null) {
+            return null;
+        }
+        return new ExpiringValue(new SimpleValueWrapper(fromStoreValue(entryView.getValue())), entryView.getExpirationTime());
+    }
+
+    /**
+     * Replaces the value of the entry only if it still holds the expected value.
+     *
+     * @return {@code false} if the entry was changed, evicted or has expired in the meantime.
+     */
+    boolean replace(Object key, Object expectedValue, Object value) {
+        return getNativeCache().replace(key, toStoreValue(expectedValue), toStoreValue(value));
+    }
+
+    static class ExpiringValue {
+
+        private final ValueWrapper value;
+        private final long expirationTime;
+
+        ExpiringValue(ValueWrapper value, long expirationTime) {
+            this.value = value;
+            this.expirationTime = expirationTime;
+        }
+
+        ValueWrapper getValue() {
+            return value;
+        }
+
+        /**
+         * Epoch milliseconds, {@link Long#MAX_VALUE} if the entry doesn't expire.
+         */
+        long getExpirationTime() {
+            return expirationTime;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package io.reflectoring.cache.configuration;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link Cache} with a local, on-heap first level in front of a distributed second level. Hits in
+ * the first level return the cached object itself, without deserialization or a network hop, so
+ * cached objects must not be modified by callers.
+ *
+ * <p>Every write goes to both levels and is published to the other nodes, which then drop the
+ * entry from their first level. Each write and invalidation bumps a generation of the key, and a
+ * value read from the second level is only stored in the first level if the generation didn't
+ * change in the meantime, so an invalidation that arrives during the read can't be undone by
+ * storing the value it invalidated.
+ *
+ * <p>For {@code @Cacheable(sync = true)} lookups, concurrent misses on the same key share a single
+ * load on each node. If refresh-ahead is enabled, an entry that is read within the refresh-ahead
+ * window before its expiration in the second level is reloaded in the background with the refresh
+ * loader of the cache. The value loader of a lookup is only ever called by the caller itself, since
+ * it runs the cached method and the advice around it. The refreshed value only replaces the entry
+ * it was loaded for, so a refresh doesn't bring back an entry that was evicted or changed meanwhile.
+ */
+@Slf4j
+class TwoLevelCache implements Cache {
+
+    private static final long UNKNOWN = Long.MAX_VALUE;
+
+    // keys share generations by hash, which only causes an occasional skipped first-level put
+    private static final int GENERATION_STRIPES = 64;
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, LocalEntry> localCache;
+    private final ExpiringHazelcastCache distributedCache;
+    private final BiConsumer<String, Object> invalidationPublisher;
+    private final Duration refreshAhead;
+    private final CacheLoader<Object, ?> refreshLoader;
+    private final Executor refreshExecutor;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+    private final Set<Object> inFlightRefreshes = ConcurrentHashMap.newKeySet();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * @param invalidationPublisher called with the cache name and the changed key ({@code null} if
+     *                              the cache was cleared) after each write.
+     * @param refreshAhead          how long before expiration entries are reloaded, zero to disable.
+     * @param refreshLoader         reloads an entry by its key, returning {@code null} if the entry
+     *                              should simply expire.
+     */
+    TwoLevelCache(
+            com.github.benmanes.caffeine.cache.Cache<Object, LocalEntry> localCache,
+            ExpiringHazelcastCache distributedCache,
+            BiConsumer<String, Object> invalidationPublisher,
+            Duration refreshAhead,
+            CacheLoader<Object, ?> refreshLoader,
+            Executor refreshExecutor) {
+        this.localCache = localCache;
+        this.distributedCache = distributedCache;
+        this.invalidationPublisher = invalidationPublisher;
+        this.refreshAhead = refreshAhead;
+        this.refreshLoader = refreshLoader;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public String getName() {
+        return distributedCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return distributedCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        LocalEntry entry = localCache.getIfPresent(key);
+        if (entry == null) {
+            entry = getFromDistributedCache(key);
+        }
+        if (entry == null) {
+            return null;
+        }
+        refreshIfDue(key, entry);
+        return entry.value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null) {
+            return null;
+        }
+        Object cached = value.get();
+        if (cached != null && type != null && !type.isInstance(cached)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + cached);
+        }
+        return (T) cached;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        LocalEntry entry = localCache.getIfPresent(key);
+        if (entry != null) {
+            refreshIfDue(key, entry);
+            return (T) entry.value.get();
+        }
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> runningLoad = inFlightLoads.putIfAbsent(key, load);
+        if (runningLoad != null) {
+            return (T) await(runningLoad);
+        }
+        try {
+            Object value = load(key, valueLoader);
+            load.complete(value);
+            return (T) value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, load);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        distributedCache.put(key, value);
+        nextGeneration(key);
+        localCache.put(key, new LocalEntry(new SimpleValueWrapper(value), refreshTimeOfWrittenEntry(key)));
+        invalidationPublisher.accept(getName(), key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = distributedCache.putIfAbsent(key, value);
+        if (existing == null) {
+            nextGeneration(key);
+            localCache.put(key, new LocalEntry(new SimpleValueWrapper(value), refreshTimeOfWrittenEntry(key)));
+            invalidationPublisher.accept(getName(), key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        distributedCache.evict(key);
+        nextGeneration(key);
+        localCache.invalidate(key);
+        invalidationPublisher.accept(getName(), key);
+    }
+
+    @Override
+    public void clear() {
+        distributedCache.clear();
+        nextGeneration(null);
+        localCache.invalidateAll();
+        invalidationPublisher.accept(getName(), null);
+    }
+
+    /**
+     * Drops entries from the first level only, after another node changed them.
+     */
+    void invalidateLocal(Object key) {
+        nextGeneration(key);
+        if (key == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(key);
+        }
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        LocalEntry entry = getFromDistributedCache(key);
+        if (entry != null) {
+            refreshIfDue(key, entry);
+            return entry.value.get();
+        }
+        long generation = generation(key);
+        // locks the key in the cluster, so only one node calls the loader
+        Object value = distributedCache.get(key, valueLoader);
+        putLocalIfUnchanged(key, new LocalEntry(new SimpleValueWrapper(value), refreshTimeOfWrittenEntry(key)), generation);
+        return value;
+    }
+
+    private LocalEntry getFromDistributedCache(Object key) {
+        long generation = generation(key);
+        LocalEntry entry;
+        if (refreshAhead.isZero()) {
+            ValueWrapper value = distributedCache.get(key);
+            entry = value == null ? null : new LocalEntry(value, UNKNOWN);
+        } else {
+            ExpiringHazelcastCache.ExpiringValue value = distributedCache.getWithExpiration(key);
+            entry = value == null ? null : new LocalEntry(value.getValue(), refreshTime(value.getExpirationTime()));
+        }
+        if (entry != null) {
+            putLocalIfUnchanged(key, entry, generation);
+        }
+        return entry;
+    }
+
+    /**
+     * Stores an entry read from the second level, unless the key was written or invalidated since
+     * {@code generation} was read. Runs atomically with other writes of the key to the first level,
+     * which all happen after the generation was bumped.
+     */
+    private void putLocalIfUnchanged(Object key, LocalEntry entry, long generation) {
+        localCache.asMap().compute(key, (k, current) -> generation(k) == generation ? entry : current);
+    }
+
+    private long generation(Object key) {
+        return generations.get(Math.floorMod(key.hashCode(), GENERATION_STRIPES));
+    }
+
+    /**
+     * Bumps the generation of the key, or of all keys if it is {@code null}.
+     */
+    private void nextGeneration(Object key) {
+        if (key != null) {
+            generations.incrementAndGet(Math.floorMod(key.hashCode(), GENERATION_STRIPES));
+            return;
+        }
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+    }
+
+    private long refreshTime(long expirationTime) {
+        return expirationTime == Long.MAX_VALUE ? UNKNOWN : expirationTime - refreshAhead.toMillis();
+    }
+
+    /**
+     * The refresh time of an entry this node just wrote to the second level, which costs another
+     * lookup of its expiration time if refresh-ahead is enabled.
+     */
+    private long refreshTimeOfWrittenEntry(Object key) {
+        if (refreshAhead.isZero()) {
+            return UNKNOWN;
+        }
+        ExpiringHazelcastCache.ExpiringValue written = distributedCache.getWithExpiration(key);
+        return written == null ? UNKNOWN : refreshTime(written.getExpirationTime());
+    }
+
+    private void refreshIfDue(Object key, LocalEntry entry) {
+        if (entry.refreshTime > System.currentTimeMillis() || !inFlightRefreshes.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Object value = refreshLoader.load(key);
+                    if (value != null) {
+                        refresh(key, entry.value.get(), value);
+                    }
+                } catch (Exception e) {
+                    log.warn("could not refresh entry {} of cache {}", key, getName(), e);
+                } finally {
+                    inFlightRefreshes.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlightRefreshes.remove(key);
+        }
+    }
+
+    private void refresh(Object key, Object expectedValue, Object value) {
+        if (!distributedCache.replace(key, expectedValue, value)) {
+            return;
+        }
+        nextGeneration(key);
+        localCache.put(key, new LocalEntry(new SimpleValueWrapper(value), refreshTimeOfWrittenEntry(key)));
+        invalidationPublisher.accept(getName(), key);
+    }
+
+    private static Object await(CompletableFuture<Object> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    static class LocalEntry {
+
+        private final ValueWrapper value;
+        private final long refreshTime;
+
+        LocalEntry(ValueWrapper value, long refreshTime) {
+            this.value = value;
+            this.refreshTime = refreshTime;
+        }
+    }
+}
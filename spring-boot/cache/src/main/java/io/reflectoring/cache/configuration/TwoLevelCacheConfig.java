@@ -0,0 +1,39 @@
+package io.reflectoring.cache.configuration;
+
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.hazelcast.core.HazelcastInstance;
+import io.reflectoring.cache.dao.CarRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+
+
+@Configuration
+// the cache manager needs the Hazelcast instance of one of these profiles
+@Profile({"embedded", "client"})
+public class TwoLevelCacheConfig {
+
+    @Bean
+    CacheManager cacheManager(
+            HazelcastInstance hazelcastInstance,
+            @Value("${cache.local.maximum-size:10000}") long localMaximumSize,
+            @Value("${cache.local.time-to-live:60s}") Duration localTimeToLive,
+            @Value("${cache.refresh-ahead:0s}") Duration refreshAhead,
+            CarRepository carRepository) {
+        // refreshes call the repository directly, not the cached method that loaded the entry
+        CacheLoader<Object, ?> carLoader = key -> carRepository.findById((UUID) key).orElse(null);
+        return new TwoLevelCacheManager(
+                hazelcastInstance,
+                localMaximumSize,
+                localTimeToLive,
+                refreshAhead,
+                Collections.singletonMap("cars", carLoader));
+    }
+}
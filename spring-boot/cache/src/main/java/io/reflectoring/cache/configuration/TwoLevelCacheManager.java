@@ -0,0 +1,110 @@
+package io.reflectoring.cache.configuration;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CacheManager} that puts a bounded Caffeine cache per node in front of the Hazelcast caches.
+ * Changes are published on a Hazelcast topic, so that no node keeps serving an entry from its local
+ * cache after another node updated or evicted it. Entries in the local cache also expire after a
+ * short time, which bounds staleness if an invalidation message is lost.
+ *
+ * <p>Entries that are read shortly before they expire in Hazelcast can be reloaded in the background
+ * (refresh-ahead), so that popular entries don't expire and cause a burst of misses. Only caches
+ * with a registered refresh loader are refreshed.
+ */
+public class TwoLevelCacheManager implements CacheManager, DisposableBean {
+
+    static final String INVALIDATION_TOPIC = "cache-invalidation";
+
+    private final UUID nodeId = UUID.randomUUID();
+    private final HazelcastInstance hazelcastInstance;
+    private final ITopic<CacheInvalidation> invalidationTopic;
+    private final long localMaximumSize;
+    private final Duration localTimeToLive;
+    private final Duration refreshAhead;
+    private final Map<String, CacheLoader<Object, ?>> refreshLoaders;
+    private final ExecutorService refreshExecutor;
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(HazelcastInstance hazelcastInstance, long localMaximumSize, Duration localTimeToLive) {
+        this(hazelcastInstance, localMaximumSize, localTimeToLive, Duration.ZERO, Collections.emptyMap());
+    }
+
+    /**
+     * @param refreshAhead   how long before their expiration in Hazelcast entries are reloaded, zero to disable.
+     * @param refreshLoaders the loaders that reload entries by their key, by cache name.
+     */
+    public TwoLevelCacheManager(
+            HazelcastInstance hazelcastInstance,
+            long localMaximumSize,
+            Duration localTimeToLive,
+            Duration refreshAhead,
+            Map<String, CacheLoader<Object, ?>> refreshLoaders) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.invalidationTopic = hazelcastInstance.getTopic(INVALIDATION_TOPIC);
+        this.localMaximumSize = localMaximumSize;
+        this.localTimeToLive = localTimeToLive;
+        this.refreshAhead = refreshAhead;
+        this.refreshLoaders = refreshLoaders;
+        // refreshes are best effort, so they are dropped when too many are pending
+        this.refreshExecutor = new ThreadPoolExecutor(1, 2, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(1000));
+        this.invalidationTopic.addMessageListener(message -> onInvalidation(message.getMessageObject()));
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TwoLevelCache createCache(String name) {
+        CacheLoader<Object, ?> refreshLoader = refreshLoaders.get(name);
+        return new TwoLevelCache(
+                Caffeine.newBuilder()
+                        .maximumSize(localMaximumSize)
+                        .expireAfterWrite(localTimeToLive)
+                        .build(),
+                new ExpiringHazelcastCache(hazelcastInstance.getMap(name)),
+                (cacheName, key) -> invalidationTopic.publish(new CacheInvalidation(nodeId, cacheName, key)),
+                refreshLoader == null ? Duration.ZERO : refreshAhead,
+                refreshLoader,
+                refreshExecutor);
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdown();
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.getSourceId())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(invalidation.getCacheName());
+        if (cache != null) {
+            cache.invalidateLocal(invalidation.getKey());
+        }
+    }
+}
@@ -1,8 +1,5 @@
 package io.reflectoring.cache.dao;
 
-import com.hazelcast.nio.ObjectDataInput;
-import com.hazelcast.nio.ObjectDataOutput;
-import com.hazelcast.nio.serialization.DataSerializable;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,7 +9,6 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import java.io.IOException;
 import java.util.UUID;
 
 @Entity
@@ -20,25 +16,11 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Car implements DataSerializable {
+public class Car {
 
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID id;
     private String name;
     private String color;
-
-    @Override
-    public void writeData(ObjectDataOutput out) throws IOException {
-        out.writeUTF(id.toString());
-        out.writeUTF(name);
-        out.writeUTF(color);
-    }
-
-    @Override
-    public void readData(ObjectDataInput in) throws IOException {
-        id = UUID.fromString(in.readUTF());
-        name = in.readUTF();
-        color = in.readUTF();
-    }
 }
@@ -0,0 +1,22 @@
+package io.reflectoring.cache.serializer;
+
+import io.reflectoring.cache.dao.Car;
+import io.reflectoring.hazelcast.serializer.CompactSerializer;
+
+/**
+ * Schema of {@link Car} for the {@link CompactSerializer}. New fields are added with a new version
+ * that lists all fields; existing versions must not be changed once objects have been written.
+ */
+public final class CompactCarSerializer {
+
+    public static final int TYPE_ID = 1;
+
+    private CompactCarSerializer() {
+    }
+
+    public static CompactSerializer<Car> create() {
+        return CompactSerializer.builder(Car.class, TYPE_ID)
+                .version(1, "id", "name", "color")
+                .build();
+    }
+}
@@ -33,7 +33,7 @@ public class CarService {
         throw new IllegalArgumentException("A car must have an id to be updated");
     }
 
-    @Cacheable(value = "cars")
+    @Cacheable(value = "cars", sync = true)
     public Car get(UUID uuid) {
         return carRepository.findById(uuid)
                 .orElseThrow(() -> new IllegalStateException("car with id " + uuid + " was not found"));
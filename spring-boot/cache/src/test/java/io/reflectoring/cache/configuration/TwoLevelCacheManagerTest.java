@@ -0,0 +1,265 @@
+package io.reflectoring.cache.configuration;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class TwoLevelCacheManagerTest {
+
+    private static HazelcastInstance hazelcastInstance;
+
+    @BeforeAll
+    static void startHazelcast() {
+        Config config = new Config();
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.addMapConfig(new MapConfig("refreshed").setTimeToLiveSeconds(3));
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+    }
+
+    @AfterAll
+    static void stopHazelcast() {
+        hazelcastInstance.shutdown();
+    }
+
+    @Test
+    void localHitReturnsSameInstance() {
+        Cache cache = new TwoLevelCacheManager(hazelcastInstance, 100, Duration.ofMinutes(1)).getCache("local-hits");
+        StringBuilder value = new StringBuilder("vw");
+
+        cache.put("key", value);
+
+        assertThat(cache.get("key").get()).isSameAs(value);
+        assertThat(hazelcastInstance.getMap("local-hits")).containsKey("key");
+    }
+
+    @Test
+    void updateOnOneNodeInvalidatesLocalCacheOfOtherNode() {
+        // two cache managers on the same cluster act like two application nodes
+        Cache firstNode = new TwoLevelCacheManager(hazelcastInstance, 100, Duration.ofMinutes(1)).getCache("cars");
+        Cache secondNode = new TwoLevelCacheManager(hazelcastInstance, 100, Duration.ofMinutes(1)).getCache("cars");
+
+        firstNode.put("key", "vw");
+        assertThat(secondNode.get("key", String.class)).isEqualTo("vw");
+
+        firstNode.put("key", "bmw");
+        await().untilAsserted(() -> assertThat(secondNode.get("key", String.class)).isEqualTo("bmw"));
+
+        firstNode.evict("key");
+        await().untilAsserted(() -> assertThat(secondNode.get("key")).isNull());
+    }
+
+    @Test
+    void clearOnOneNodeClearsLocalCacheOfOtherNode() {
+        Cache firstNode = new TwoLevelCacheManager(hazelcastInstance, 100, Duration.ofMinutes(1)).getCache("cleared");
+        Cache secondNode = new TwoLevelCacheManager(hazelcastInstance, 100, Duration.ofMinutes(1)).getCache("cleared");
+
+        firstNode.put("key", "vw");
+        assertThat(secondNode.get("key", String.class)).isEqualTo("vw");
+
+        firstNode.clear();
+        await().untilAsserted(() -> assertThat(secondNode.get("key")).isNull());
+    }
+
+    @Test
+    void valueLoaderIsOnlyCalledOnMiss() {
+        Cache cache = new TwoLevelCacheManager(hazelcastInstance, 100, Duration.ofMinutes(1)).getCache("loaded");
+        Map<String, Object> map = hazelcastInstance.getMap("loaded");
+
+        assertThat(cache.get("key", () -> "vw")).isEqualTo("vw");
+        assertThat(cache.get("key", () -> "bmw")).isEqualTo("vw");
+        assertThat(map.get("key")).isEqualTo("vw");
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        Cache cache = new TwoLevelCacheManager(hazelcastInstance, 100, Duration.ofMinutes(1)).getCache("coalesced");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return cache.get("key", () -> {
+                    loads.incrementAndGet();
+                    Thread.sleep(500);
+                    return "vw";
+                });
+            }));
+        }
+        start.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("vw");
+        }
+        assertThat(loads).hasValue(1);
+        executor.shutdown();
+    }
+
+    @Test
+    void entriesAreRefreshedBeforeTheyExpire() throws Exception {
+        // the map has a time to live of 3 seconds, entries are refreshed 2.5 seconds before
+        AtomicInteger refreshes = new AtomicInteger();
+        Cache cache = refreshingCache(Duration.ofMillis(100), key -> "v" + (refreshes.incrementAndGet() + 1));
+
+        assertThat(cache.get("key", () -> "v1")).isEqualTo("v1");
+
+        Thread.sleep(1000);
+        cache.get("key", () -> "v1");
+
+        await().untilAsserted(() -> assertThat(cache.get("key", String.class)).isEqualTo("v2"));
+        assertThat(hazelcastInstance.getMap("refreshed").get("key")).isEqualTo("v2");
+        assertThat(refreshes).hasValue(1);
+    }
+
+    @Test
+    void refreshDoesNotCallTheValueLoaderOfTheLookup() throws Exception {
+        AtomicInteger valueLoaderCalls = new AtomicInteger();
+        Cache cache = refreshingCache(Duration.ofMinutes(1), key -> "refreshed");
+
+        cache.get("not-reloaded", () -> "v" + valueLoaderCalls.incrementAndGet());
+        Thread.sleep(1000);
+        cache.get("not-reloaded", () -> "v" + valueLoaderCalls.incrementAndGet());
+
+        await().untilAsserted(() -> assertThat(cache.get("not-reloaded", String.class)).isEqualTo("refreshed"));
+        assertThat(valueLoaderCalls).hasValue(1);
+    }
+
+    @Test
+    void cachesWithoutRefreshLoaderAreNotRefreshed() throws Exception {
+        Cache cache = new TwoLevelCacheManager(
+                hazelcastInstance, 100, Duration.ofMinutes(1), Duration.ofMillis(2500), Collections.emptyMap())
+                .getCache("refreshed");
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("unregistered", () -> "v" + loads.incrementAndGet());
+        Thread.sleep(1000);
+        cache.get("unregistered", () -> "v" + loads.incrementAndGet());
+
+        Thread.sleep(500);
+        assertThat(cache.get("unregistered", String.class)).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void locallyLoadedEntriesAreRefreshed() throws Exception {
+        // the local cache keeps the loaded entry, so the refresh has to be triggered by a local hit
+        Cache cache = refreshingCache(Duration.ofMinutes(1), key -> "v2");
+
+        assertThat(cache.get("loaded", () -> "v1")).isEqualTo("v1");
+
+        Thread.sleep(1000);
+        cache.get("loaded", String.class);
+
+        await().untilAsserted(() -> assertThat(cache.get("loaded", String.class)).isEqualTo("v2"));
+        assertThat(hazelcastInstance.getMap("refreshed").get("loaded")).isEqualTo("v2");
+    }
+
+    @Test
+    void refreshDoesNotResurrectEvictedEntry() throws Exception {
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        Cache cache = refreshingCache(Duration.ofMinutes(1), key -> {
+            refreshStarted.countDown();
+            evicted.await();
+            return "v2";
+        });
+
+        cache.put("evicted", "v1");
+        Thread.sleep(1000);
+        cache.get("evicted");
+
+        assertThat(refreshStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.evict("evicted");
+        evicted.countDown();
+
+        Thread.sleep(500);
+        assertThat(hazelcastInstance.getMap("refreshed").containsKey("evicted")).isFalse();
+        assertThat(cache.get("evicted")).isNull();
+    }
+
+    @Test
+    void invalidationDuringReadIsNotUndone() {
+        IMap<Object, Object> map = hazelcastInstance.getMap("invalidated-during-read");
+        map.put("key", "vw");
+        TwoLevelCache[] cache = new TwoLevelCache[1];
+        // another node updates the entry right after this node read the old value from Hazelcast
+        ExpiringHazelcastCache distributedCache = new ExpiringHazelcastCache(map) {
+            @Override
+            public ValueWrapper get(Object key) {
+                ValueWrapper value = super.get(key);
+                if ("vw".equals(value.get())) {
+                    map.put(key, "bmw");
+                    cache[0].invalidateLocal(key);
+                }
+                return value;
+            }
+        };
+        cache[0] = new TwoLevelCache(Caffeine.newBuilder().build(), distributedCache, (name, key) -> {
+        }, Duration.ZERO, null, Runnable::run);
+
+        assertThat(cache[0].get("key").get()).isEqualTo("vw");
+        assertThat(cache[0].get("key").get()).isEqualTo("bmw");
+    }
+
+    @Test
+    void localWriteDuringReadIsNotOverwritten() {
+        IMap<Object, Object> map = hazelcastInstance.getMap("written-during-read");
+        map.put("key", "vw");
+        TwoLevelCache[] cache = new TwoLevelCache[1];
+        ExpiringHazelcastCache distributedCache = new ExpiringHazelcastCache(map) {
+            @Override
+            public ValueWrapper get(Object key) {
+                ValueWrapper value = super.get(key);
+                if ("vw".equals(value.get())) {
+                    cache[0].put(key, "bmw");
+                }
+                return value;
+            }
+        };
+        cache[0] = new TwoLevelCache(Caffeine.newBuilder().build(), distributedCache, (name, key) -> {
+        }, Duration.ZERO, null, Runnable::run);
+
+        cache[0].get("key");
+
+        assertThat(cache[0].get("key").get()).isEqualTo("bmw");
+    }
+
+    /**
+     * A cache on the map {@code refreshed}, whose entries are reloaded with the given loader 2.5
+     * seconds before they expire.
+     */
+    private static Cache refreshingCache(Duration localTimeToLive, CacheLoader<Object, ?> refreshLoader) {
+        return new TwoLevelCacheManager(
+                hazelcastInstance,
+                100,
+                localTimeToLive,
+                Duration.ofMillis(2500),
+                Collections.singletonMap("refreshed", refreshLoader))
+                .getCache("refreshed");
+    }
+}
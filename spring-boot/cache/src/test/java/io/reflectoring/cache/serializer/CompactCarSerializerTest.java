@@ -0,0 +1,40 @@
+package io.reflectoring.cache.serializer;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import io.reflectoring.cache.dao.Car;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactCarSerializerTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder()
+            .setConfig(new SerializationConfig()
+                    .addSerializerConfig(new SerializerConfig()
+                            .setImplementation(CompactCarSerializer.create())
+                            .setTypeClass(Car.class)))
+            .build();
+
+    @Test
+    void roundTripsCar() {
+        Car car = new Car(UUID.randomUUID(), "VW", "red");
+
+        Car read = serializationService.toObject(serializationService.toData(car));
+
+        assertThat(read).isEqualTo(car);
+    }
+
+    @Test
+    void roundTripsCarWithoutColor() {
+        Car car = new Car(UUID.randomUUID(), "VW", null);
+
+        Car read = serializationService.toObject(serializationService.toData(car));
+
+        assertThat(read).isEqualTo(car);
+    }
+}
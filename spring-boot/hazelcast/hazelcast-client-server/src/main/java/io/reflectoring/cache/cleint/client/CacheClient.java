@@ -3,34 +3,107 @@ package io.reflectoring.cache.cleint.client;
 import com.hazelcast.client.HazelcastClient;
 import com.hazelcast.client.config.ClientConfig;
 import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.SerializerConfig;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Pipelining;
 import com.hazelcast.map.IMap;
 import io.reflectoring.cache.cleint.rest.Car;
+import io.reflectoring.cache.cleint.serializer.CompactCarSerializer;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Component
 public class CacheClient {
 
     private static final String CARS = "cars";
+    private static final int MAX_PENDING_OPERATIONS = 100;
 
     private HazelcastInstance client = HazelcastClient.newHazelcastClient(creatClientConfig());
+    private final IMap<String, Car> cars = client.getMap(CARS);
+    // IMap has no putIfAbsentAsync and the members don't have our classes for an entry processor,
+    // so asynchronous putIfAbsent calls block a thread of this pool instead
+    private final ExecutorService putIfAbsentExecutor = Executors.newFixedThreadPool(16);
 
     public Car put(String key, Car car) {
-        IMap<String, Car> map = client.getMap(CARS);
-        return map.putIfAbsent(key, car);
+        return cars.putIfAbsent(key, car);
     }
 
     public Car get(String key) {
-        IMap<String, Car> map = client.getMap(CARS);
-        return map.get(key);
+        return cars.get(key);
+    }
+
+    /**
+     * Returns the cached cars for the given keys, with one request per member instead of one per
+     * car. Keys that are not cached are missing from the result.
+     */
+    public Map<String, Car> getAll(Set<String> keys) {
+        return cars.getAll(keys);
+    }
+
+    /**
+     * Puts all cars, replacing cached ones, with one request per member instead of one per car.
+     */
+    public void putAll(Map<String, Car> carsByKey) {
+        cars.putAll(carsByKey);
+    }
+
+    /**
+     * Puts the car if its key is not cached yet, without waiting for the result. Completes with the
+     * car that was already cached, or {@code null}.
+     */
+    public CompletionStage<Car> putIfAbsentAsync(String key, Car car) {
+        return CompletableFuture.supplyAsync(() -> cars.putIfAbsent(key, car), putIfAbsentExecutor);
+    }
+
+    /**
+     * Puts the cars whose keys are not cached yet, with up to {@value MAX_PENDING_OPERATIONS}
+     * requests in flight. Returns the cars that were already cached.
+     */
+    public Map<String, Car> putAllIfAbsent(Map<String, Car> carsByKey) throws Exception {
+        List<String> keys = new ArrayList<>(carsByKey.keySet());
+        Pipelining<Car> pipelining = new Pipelining<>(MAX_PENDING_OPERATIONS);
+        for (String key : keys) {
+            pipelining.add(putIfAbsentAsync(key, carsByKey.get(key)));
+        }
+        List<Car> previousCars = pipelining.results();
+
+        Map<String, Car> existing = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (previousCars.get(i) != null) {
+                existing.put(keys.get(i), previousCars.get(i));
+            }
+        }
+        return existing;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        putIfAbsentExecutor.shutdown();
     }
 
     private ClientConfig creatClientConfig() {
         ClientConfig clientConfig = new ClientConfig();
         clientConfig.addNearCacheConfig(createNearCacheConfig());
+        clientConfig.getSerializationConfig().addSerializerConfig(createSerializerConfig());
         return clientConfig;
     }
 
+    private SerializerConfig createSerializerConfig() {
+        return new SerializerConfig()
+                .setImplementation(CompactCarSerializer.create())
+                .setTypeClass(Car.class);
+    }
+
     private NearCacheConfig createNearCacheConfig() {
         NearCacheConfig nearCacheConfig = new NearCacheConfig();
         nearCacheConfig.setName(CARS);
@@ -1,5 +1,6 @@
 package io.reflectoring.cache.cleint.rest;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.reflectoring.cache.cleint.AbstractIntegrationTest;
 import org.junit.jupiter.api.Test;
@@ -9,9 +10,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -47,4 +52,63 @@ class ControllerTest extends AbstractIntegrationTest {
 
     assertThat(response).isEqualToComparingFieldByField(car);
   }
+
+  @Test
+  void putAllGetAll() throws Exception {
+    // given
+    Map<String, Car> cars = new HashMap<>();
+    cars.put("HH1234", Car.builder().color("red").name("Audi").build());
+    cars.put("M5678", Car.builder().color("blue").name("BMW").build());
+
+    // put all
+    mockMvc
+        .perform(
+            put("/cars")
+                .content(objectMapper.writeValueAsString(cars))
+                .contentType(MediaType.APPLICATION_JSON_VALUE))
+        .andExpect(status().isNoContent());
+
+    // get all
+    String json =
+        mockMvc
+            .perform(get("/cars").param("numbers", "HH1234", "M5678", "B0000"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    Map<String, Car> response = objectMapper.readValue(json, new TypeReference<Map<String, Car>>() {});
+
+    assertThat(response).isEqualTo(cars);
+  }
+
+  @Test
+  void putAllIfAbsentReturnsCachedCars() throws Exception {
+    // given
+    Car cached = Car.builder().color("green").name("Opel").build();
+    mockMvc
+        .perform(
+            post("/cars/K1111")
+                .content(objectMapper.writeValueAsString(cached))
+                .contentType(MediaType.APPLICATION_JSON_VALUE))
+        .andExpect(status().isCreated());
+    Map<String, Car> cars = new HashMap<>();
+    cars.put("K1111", Car.builder().color("white").name("Ford").build());
+    cars.put("K2222", Car.builder().color("black").name("Seat").build());
+
+    // put all if absent
+    String json =
+        mockMvc
+            .perform(
+                post("/cars")
+                    .content(objectMapper.writeValueAsString(cars))
+                    .contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    Map<String, Car> existing = objectMapper.readValue(json, new TypeReference<Map<String, Car>>() {});
+
+    assertThat(existing).containsOnlyKeys("K1111");
+    assertThat(existing.get("K1111")).isEqualTo(cached);
+  }
 }
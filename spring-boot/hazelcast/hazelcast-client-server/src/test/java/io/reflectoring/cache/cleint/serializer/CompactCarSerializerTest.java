@@ -0,0 +1,59 @@
+package io.reflectoring.cache.cleint.serializer;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import io.reflectoring.cache.cleint.rest.Car;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactCarSerializerTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder()
+            .setConfig(new SerializationConfig()
+                    .addSerializerConfig(new SerializerConfig()
+                            .setImplementation(CompactCarSerializer.create())
+                            .setTypeClass(Car.class)))
+            .build();
+
+    @Test
+    void roundTripsCar() {
+        Car car = new Car("red", "VW");
+
+        Car read = serializationService.toObject(serializationService.toData(car));
+
+        assertThat(read).isEqualTo(car);
+    }
+
+    @Test
+    void roundTripsCarWithoutColor() {
+        Car car = new Car(null, "VW");
+
+        Car read = serializationService.toObject(serializationService.toData(car));
+
+        assertThat(read).isEqualTo(car);
+    }
+
+    @Test
+    void usesTheCompactTypeId() {
+        Data data = serializationService.toData(new Car("red", "VW"));
+
+        assertThat(data.getType()).isEqualTo(CompactCarSerializer.TYPE_ID);
+    }
+
+    @Test
+    void writesSchemaVersion1() {
+        // cars already stored in the cluster must stay readable, so version 1 must not change
+        Data data = serializationService.toData(new Car("red", "VW"));
+
+        // the payload follows the partition hash and the type id
+        byte[] payload = Arrays.copyOfRange(data.toByteArray(), 8, data.totalSize());
+
+        assertThat(payload).containsExactly(1, 0, 3, 'r', 'e', 'd', 2, 'V', 'W');
+    }
+}
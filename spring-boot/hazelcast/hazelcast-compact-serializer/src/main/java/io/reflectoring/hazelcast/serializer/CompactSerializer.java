@@ -0,0 +1,332 @@
+package io.reflectoring.hazelcast.serializer;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * {@link StreamSerializer} that writes the fields of a type in a compact binary format. The fields
+ * are looked up by reflection once, when the serializer is built, not for every object.
+ *
+ * <p>Each serialized object starts with its schema version, followed by a bitmap of the fields that
+ * are {@code null} and the values of the other fields: strings as length-prefixed UTF-8, integers
+ * as variable-length numbers and UUIDs as two longs. A schema can have up to 64 fields.
+ *
+ * <p>Objects are always written with the latest schema version. Older versions stay readable, the
+ * fields they don't contain keep the value given by the no-args constructor. Objects written with
+ * a version this serializer doesn't know are rejected.
+ */
+public class CompactSerializer<T> implements StreamSerializer<T> {
+
+    private final int typeId;
+    private final Constructor<T> constructor;
+    private final int latestVersion;
+    private final FieldCodec[] latestSchema;
+    private final FieldCodec[][] schemas;
+
+    private CompactSerializer(Class<T> type, int typeId, TreeMap<Integer, FieldCodec[]> schemas) {
+        this.typeId = typeId;
+        this.constructor = noArgsConstructor(type);
+        this.latestVersion = schemas.lastKey();
+        this.latestSchema = schemas.lastEntry().getValue();
+        this.schemas = new FieldCodec[latestVersion + 1][];
+        schemas.forEach((version, fields) -> this.schemas[version] = fields);
+    }
+
+    public static <T> Builder<T> builder(Class<T> type, int typeId) {
+        return new Builder<>(type, typeId);
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, T object) throws IOException {
+        writeVarInt(out, latestVersion);
+        long nulls = 0;
+        for (int i = 0; i < latestSchema.length; i++) {
+            if (latestSchema[i].get(object) == null) {
+                nulls |= 1L << i;
+            }
+        }
+        writeVarLong(out, nulls);
+        for (int i = 0; i < latestSchema.length; i++) {
+            if ((nulls & (1L << i)) == 0) {
+                latestSchema[i].type.write(out, latestSchema[i].get(object));
+            }
+        }
+    }
+
+    @Override
+    public T read(ObjectDataInput in) throws IOException {
+        int version = readVarInt(in);
+        if (version <= 0 || version >= schemas.length || schemas[version] == null) {
+            throw new HazelcastSerializationException("Unknown schema version " + version
+                    + " for " + constructor.getDeclaringClass().getName());
+        }
+        FieldCodec[] schema = schemas[version];
+        long nulls = readVarLong(in);
+        T object = newInstance();
+        for (int i = 0; i < schema.length; i++) {
+            if ((nulls & (1L << i)) == 0) {
+                schema[i].set(object, schema[i].type.read(in));
+            }
+        }
+        return object;
+    }
+
+    @Override
+    public int getTypeId() {
+        return typeId;
+    }
+
+    private T newInstance() {
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new HazelcastSerializationException(e);
+        }
+    }
+
+    private static <T> Constructor<T> noArgsConstructor(Class<T> type) {
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(type.getName() + " has no no-args constructor", e);
+        }
+    }
+
+    private static void writeVarInt(ObjectDataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(ObjectDataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new HazelcastSerializationException("Malformed variable-length int");
+    }
+
+    private static void writeVarLong(ObjectDataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(ObjectDataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new HazelcastSerializationException("Malformed variable-length long");
+    }
+
+    public static class Builder<T> {
+
+        private final Class<T> type;
+        private final int typeId;
+        private final TreeMap<Integer, FieldCodec[]> schemas = new TreeMap<>();
+
+        private Builder(Class<T> type, int typeId) {
+            this.type = type;
+            this.typeId = typeId;
+        }
+
+        /**
+         * Adds a schema version, given by the names of the fields it contains, in the order they are
+         * written. Versions start at 1. The highest version is used for writing.
+         */
+        public Builder<T> version(int version, String... fieldNames) {
+            if (version <= 0) {
+                throw new IllegalArgumentException("Schema versions start at 1");
+            }
+            if (schemas.containsKey(version)) {
+                throw new IllegalArgumentException("Schema version " + version + " is already defined");
+            }
+            if (fieldNames.length > Long.SIZE) {
+                throw new IllegalArgumentException("A schema can have at most " + Long.SIZE + " fields");
+            }
+            List<FieldCodec> fields = new ArrayList<>();
+            for (String fieldName : fieldNames) {
+                fields.add(new FieldCodec(field(fieldName)));
+            }
+            schemas.put(version, fields.toArray(new FieldCodec[0]));
+            return this;
+        }
+
+        public CompactSerializer<T> build() {
+            if (schemas.isEmpty()) {
+                throw new IllegalStateException("No schema version defined for " + type.getName());
+            }
+            return new CompactSerializer<>(type, typeId, new TreeMap<>(schemas));
+        }
+
+        private Field field(String name) {
+            try {
+                Field field = type.getDeclaredField(name);
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+                    throw new IllegalArgumentException("Field " + name + " of " + type.getName()
+                            + " is static or final");
+                }
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException e) {
+                throw new IllegalArgumentException(type.getName() + " has no field " + name, e);
+            }
+        }
+    }
+
+    private static class FieldCodec {
+
+        private final Field field;
+        private final FieldType type;
+
+        FieldCodec(Field field) {
+            this.field = field;
+            this.type = FieldType.of(field);
+        }
+
+        Object get(Object object) {
+            try {
+                return field.get(object);
+            } catch (IllegalAccessException e) {
+                throw new HazelcastSerializationException(e);
+            }
+        }
+
+        void set(Object object, Object value) {
+            try {
+                field.set(object, value);
+            } catch (IllegalAccessException e) {
+                throw new HazelcastSerializationException(e);
+            }
+        }
+    }
+
+    private enum FieldType {
+
+        STRING {
+            @Override
+            void write(ObjectDataOutput out, Object value) throws IOException {
+                byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, bytes.length);
+                out.write(bytes);
+            }
+
+            @Override
+            Object read(ObjectDataInput in) throws IOException {
+                byte[] bytes = new byte[readVarInt(in)];
+                in.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        },
+        UUID {
+            @Override
+            void write(ObjectDataOutput out, Object value) throws IOException {
+                java.util.UUID uuid = (java.util.UUID) value;
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }
+
+            @Override
+            Object read(ObjectDataInput in) throws IOException {
+                return new java.util.UUID(in.readLong(), in.readLong());
+            }
+        },
+        INT {
+            @Override
+            void write(ObjectDataOutput out, Object value) throws IOException {
+                int i = (Integer) value;
+                writeVarInt(out, (i << 1) ^ (i >> 31));
+            }
+
+            @Override
+            Object read(ObjectDataInput in) throws IOException {
+                int i = readVarInt(in);
+                return (i >>> 1) ^ -(i & 1);
+            }
+        },
+        LONG {
+            @Override
+            void write(ObjectDataOutput out, Object value) throws IOException {
+                long l = (Long) value;
+                writeVarLong(out, (l << 1) ^ (l >> 63));
+            }
+
+            @Override
+            Object read(ObjectDataInput in) throws IOException {
+                long l = readVarLong(in);
+                return (l >>> 1) ^ -(l & 1);
+            }
+        },
+        BOOLEAN {
+            @Override
+            void write(ObjectDataOutput out, Object value) throws IOException {
+                out.writeBoolean((Boolean) value);
+            }
+
+            @Override
+            Object read(ObjectDataInput in) throws IOException {
+                return in.readBoolean();
+            }
+        },
+        DOUBLE {
+            @Override
+            void write(ObjectDataOutput out, Object value) throws IOException {
+                out.writeDouble((Double) value);
+            }
+
+            @Override
+            Object read(ObjectDataInput in) throws IOException {
+                return in.readDouble();
+            }
+        };
+
+        abstract void write(ObjectDataOutput out, Object value) throws IOException;
+
+        abstract Object read(ObjectDataInput in) throws IOException;
+
+        static FieldType of(Field field) {
+            Class<?> type = field.getType();
+            if (type == String.class) {
+                return STRING;
+            } else if (type == java.util.UUID.class) {
+                return UUID;
+            } else if (type == int.class || type == Integer.class) {
+                return INT;
+            } else if (type == long.class || type == Long.class) {
+                return LONG;
+            } else if (type == boolean.class || type == Boolean.class) {
+                return BOOLEAN;
+            } else if (type == double.class || type == Double.class) {
+                return DOUBLE;
+            }
+            throw new IllegalArgumentException("Unsupported type " + type.getName() + " of field "
+                    + field.getName() + " in " + field.getDeclaringClass().getName());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package io.reflectoring.hazelcast.serializer;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.nio.serialization.StreamSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactSerializerTest {
+
+    @Test
+    void roundTripsAllFieldTypesAndNulls() {
+        InternalSerializationService serializationService = serializationService(Vehicle.class,
+                CompactSerializer.builder(Vehicle.class, 10)
+                        .version(1, "id", "name", "seats", "mileage", "electric", "price")
+                        .build());
+        Vehicle vehicle = new Vehicle();
+        vehicle.id = UUID.randomUUID();
+        vehicle.seats = -5;
+        vehicle.mileage = Long.MAX_VALUE;
+        vehicle.electric = true;
+        vehicle.price = 19_999.99;
+
+        Vehicle read = serializationService.toObject(serializationService.toData(vehicle));
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(vehicle);
+        assertThat(read.name).isNull();
+    }
+
+    @Test
+    void readsOlderSchemaVersions() {
+        InternalSerializationService v1 = serializationService(Vehicle.class,
+                CompactSerializer.builder(Vehicle.class, 10)
+                        .version(1, "id", "name")
+                        .build());
+        InternalSerializationService v2 = serializationService(Vehicle.class,
+                CompactSerializer.builder(Vehicle.class, 10)
+                        .version(1, "id", "name")
+                        .version(2, "id", "name", "seats", "price")
+                        .build());
+        Vehicle vehicle = new Vehicle();
+        vehicle.id = UUID.randomUUID();
+        vehicle.name = "Golf";
+        vehicle.seats = 5;
+        vehicle.price = 19_999.99;
+
+        Vehicle read = v2.toObject(v1.toData(vehicle));
+
+        assertThat(read.id).isEqualTo(vehicle.id);
+        assertThat(read.name).isEqualTo("Golf");
+        assertThat(read.seats).isZero();
+        assertThat(read.price).isNull();
+    }
+
+    @Test
+    void rejectsNewerSchemaVersions() {
+        InternalSerializationService v1 = serializationService(Vehicle.class,
+                CompactSerializer.builder(Vehicle.class, 10)
+                        .version(1, "id", "name")
+                        .build());
+        InternalSerializationService v2 = serializationService(Vehicle.class,
+                CompactSerializer.builder(Vehicle.class, 10)
+                        .version(1, "id", "name")
+                        .version(2, "id", "name", "seats")
+                        .build());
+        Data data = v2.toData(new Vehicle());
+
+        assertThatThrownBy(() -> v1.toObject(data))
+                .isInstanceOf(HazelcastSerializationException.class)
+                .hasMessageContaining("Unknown schema version 2");
+    }
+
+    @Test
+    void rejectsUnsupportedFieldTypes() {
+        assertThatThrownBy(() -> CompactSerializer.builder(Vehicle.class, 10).version(1, "tags"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unsupported type");
+    }
+
+    private static <T> InternalSerializationService serializationService(Class<T> type, StreamSerializer<T> serializer) {
+        SerializationConfig config = new SerializationConfig()
+                .addSerializerConfig(new SerializerConfig()
+                        .setImplementation(serializer)
+                        .setTypeClass(type));
+        return new DefaultSerializationServiceBuilder()
+                .setConfig(config)
+                .build();
+    }
+
+    static class Vehicle {
+        UUID id;
+        String name;
+        int seats;
+        long mileage;
+        boolean electric;
+        Double price;
+        String[] tags;
+    }
+}
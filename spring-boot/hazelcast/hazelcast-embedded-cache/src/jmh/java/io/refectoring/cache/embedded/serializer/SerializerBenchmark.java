@@ -0,0 +1,174 @@
+package io.refectoring.cache.embedded.serializer;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.nio.serialization.Serializer;
+import io.refectoring.cache.embedded.rest.Car;
+import io.reflectoring.hazelcast.serializer.CompactSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link CompactSerializer} with the serializers currently used for cached cars: the
+ * {@link CarSerializer} of this module, Java serialization of the client-server module's car and
+ * the {@link DataSerializable} car of the cache module. The bytes per entry, including the
+ * Hazelcast header, are printed when each trial starts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializerBenchmark {
+
+    @Param({"carSerializer", "compactCar", "javaSerialization", "compactSerializableCar",
+            "dataSerializable", "compactEntityCar"})
+    private String serializer;
+
+    private InternalSerializationService serializationService;
+    private Object value;
+    private Data data;
+
+    @Setup
+    public void setUp() {
+        SerializationConfig config = new SerializationConfig();
+        switch (serializer) {
+            case "carSerializer":
+                value = car();
+                config.addSerializerConfig(serializerConfig(Car.class, new CarSerializer()));
+                break;
+            case "compactCar":
+                value = car();
+                config.addSerializerConfig(serializerConfig(Car.class, CompactCarSerializer.create()));
+                break;
+            case "javaSerialization":
+                value = new SerializableCar("red", "VW");
+                break;
+            case "compactSerializableCar":
+                value = new SerializableCar("red", "VW");
+                config.addSerializerConfig(serializerConfig(SerializableCar.class,
+                        CompactSerializer.builder(SerializableCar.class, 3).version(1, "color", "name").build()));
+                break;
+            case "dataSerializable":
+                value = new DataSerializableCar(UUID.randomUUID(), "VW", "red");
+                break;
+            case "compactEntityCar":
+                value = new EntityCar(UUID.randomUUID(), "VW", "red");
+                config.addSerializerConfig(serializerConfig(EntityCar.class,
+                        CompactSerializer.builder(EntityCar.class, 4).version(1, "id", "name", "color").build()));
+                break;
+            default:
+                throw new IllegalArgumentException(serializer);
+        }
+        serializationService = new DefaultSerializationServiceBuilder().setConfig(config).build();
+        data = serializationService.toData(value);
+        System.out.println(serializer + ": " + data.totalSize() + " bytes per entry");
+    }
+
+    @Benchmark
+    public Data serialize() {
+        return serializationService.toData(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializationService.toObject(data);
+    }
+
+    private static Car car() {
+        return Car.builder()
+                .number("BO5489")
+                .name("VW")
+                .build();
+    }
+
+    private static SerializerConfig serializerConfig(Class<?> type, Serializer serializer) {
+        return new SerializerConfig()
+                .setImplementation(serializer)
+                .setTypeClass(type);
+    }
+
+    /**
+     * Same fields as the car of the client-server module, which is cached with Java serialization.
+     */
+    public static class SerializableCar implements Serializable {
+
+        private String color;
+        private String name;
+
+        public SerializableCar() {
+        }
+
+        SerializableCar(String color, String name) {
+            this.color = color;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Same fields as the car entity of the cache module.
+     */
+    public static class EntityCar {
+
+        UUID id;
+        String name;
+        String color;
+
+        public EntityCar() {
+        }
+
+        EntityCar(UUID id, String name, String color) {
+            this.id = id;
+            this.name = name;
+            this.color = color;
+        }
+    }
+
+    /**
+     * Same serialization as the car entity of the cache module.
+     */
+    public static class DataSerializableCar extends EntityCar implements DataSerializable {
+
+        public DataSerializableCar() {
+        }
+
+        DataSerializableCar(UUID id, String name, String color) {
+            super(id, name, color);
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeUTF(id.toString());
+            out.writeUTF(name);
+            out.writeUTF(color);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            id = UUID.fromString(in.readUTF());
+            name = in.readUTF();
+            color = in.readUTF();
+        }
+    }
+}
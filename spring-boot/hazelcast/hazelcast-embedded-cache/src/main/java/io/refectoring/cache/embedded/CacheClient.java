@@ -5,25 +5,78 @@ import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.SerializerConfig;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Pipelining;
 import com.hazelcast.map.IMap;
 import io.refectoring.cache.embedded.rest.Car;
-import io.refectoring.cache.embedded.serializer.CarSerializer;
+import io.refectoring.cache.embedded.serializer.CompactCarSerializer;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
 @Component
 public class CacheClient {
 
     public static final String CARS = "cars";
+    private static final int MAX_PENDING_OPERATIONS = 100;
+
     private final HazelcastInstance hazelcastInstance = Hazelcast.newHazelcastInstance(createConfig());
+    private final IMap<String, Car> cars = hazelcastInstance.getMap(CARS);
 
     public Car put(String number, Car car){
-        IMap<String, Car> map = hazelcastInstance.getMap(CARS);
-        return map.putIfAbsent(number, car);
+        return cars.putIfAbsent(number, car);
     }
 
     public Car get(String key){
-        IMap<String, Car> map = hazelcastInstance.getMap(CARS);
-        return map.get(key);
+        return cars.get(key);
+    }
+
+    /**
+     * Returns the cached cars for the given numbers, with one operation per member instead of one
+     * per car. Numbers that are not cached are missing from the result.
+     */
+    public Map<String, Car> getAll(Set<String> numbers) {
+        return cars.getAll(numbers);
+    }
+
+    /**
+     * Puts all cars, replacing cached ones, with one operation per member instead of one per car.
+     */
+    public void putAll(Map<String, Car> carsByNumber) {
+        cars.putAll(carsByNumber);
+    }
+
+    /**
+     * Puts the car if its number is not cached yet, without waiting for the result. Completes with
+     * the car that was already cached, or {@code null}.
+     */
+    public CompletionStage<Car> putIfAbsentAsync(String number, Car car) {
+        return cars.submitToKey(number, new PutIfAbsentProcessor(car));
+    }
+
+    /**
+     * Puts the cars whose numbers are not cached yet, with up to {@value MAX_PENDING_OPERATIONS}
+     * operations in flight. Returns the cars that were already cached.
+     */
+    public Map<String, Car> putAllIfAbsent(Map<String, Car> carsByNumber) throws Exception {
+        List<String> numbers = new ArrayList<>(carsByNumber.keySet());
+        Pipelining<Car> pipelining = new Pipelining<>(MAX_PENDING_OPERATIONS);
+        for (String number : numbers) {
+            pipelining.add(putIfAbsentAsync(number, carsByNumber.get(number)));
+        }
+        List<Car> previousCars = pipelining.results();
+
+        Map<String, Car> existing = new HashMap<>();
+        for (int i = 0; i < numbers.size(); i++) {
+            if (previousCars.get(i) != null) {
+                existing.put(numbers.get(i), previousCars.get(i));
+            }
+        }
+        return existing;
     }
 
     public Config createConfig() {
@@ -35,7 +88,7 @@ public class CacheClient {
 
     private SerializerConfig serializerConfig() {
         return  new SerializerConfig()
-                .setImplementation(new CarSerializer())
+                .setImplementation(CompactCarSerializer.create())
                 .setTypeClass(Car.class);
     }
 
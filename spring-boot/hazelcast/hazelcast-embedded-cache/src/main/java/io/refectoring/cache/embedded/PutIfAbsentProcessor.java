@@ -0,0 +1,45 @@
+package io.refectoring.cache.embedded;
+
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+import io.refectoring.cache.embedded.rest.Car;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Sets the car if the entry has no value yet and returns the previous value, like
+ * {@link com.hazelcast.map.IMap#putIfAbsent}, which has no asynchronous variant.
+ */
+class PutIfAbsentProcessor implements EntryProcessor<String, Car, Car>, DataSerializable {
+
+    private Car car;
+
+    PutIfAbsentProcessor() {
+    }
+
+    PutIfAbsentProcessor(Car car) {
+        this.car = car;
+    }
+
+    @Override
+    public Car process(Map.Entry<String, Car> entry) {
+        Car existing = entry.getValue();
+        if (existing == null) {
+            entry.setValue(car);
+        }
+        return existing;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeObject(car);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        car = in.readObject();
+    }
+}
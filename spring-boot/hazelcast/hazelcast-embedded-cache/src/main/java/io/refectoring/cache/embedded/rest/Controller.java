@@ -6,6 +6,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+import java.util.Set;
+
 @RestController
 @RequestMapping(path = "/cars")
 public class Controller {
@@ -26,4 +29,21 @@ public class Controller {
     public Car get(@PathVariable String number) {
         return cacheClient.get(number);
     }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Car> getAll(@RequestParam Set<String> numbers) {
+        return cacheClient.getAll(numbers);
+    }
+
+    @PutMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(code = HttpStatus.NO_CONTENT)
+    public void putAll(@RequestBody Map<String, Car> cars) {
+        cacheClient.putAll(cars);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(code = HttpStatus.CREATED)
+    public Map<String, Car> putAllIfAbsent(@RequestBody Map<String, Car> cars) throws Exception {
+        return cacheClient.putAllIfAbsent(cars);
+    }
 }
@@ -0,0 +1,22 @@
+package io.refectoring.cache.embedded.serializer;
+
+import io.refectoring.cache.embedded.rest.Car;
+import io.reflectoring.hazelcast.serializer.CompactSerializer;
+
+/**
+ * Schema of {@link Car} for the {@link CompactSerializer}. New fields are added with a new version
+ * that lists all fields; existing versions must not be changed once objects have been written.
+ */
+public final class CompactCarSerializer {
+
+    public static final int TYPE_ID = 2;
+
+    private CompactCarSerializer() {
+    }
+
+    public static CompactSerializer<Car> create() {
+        return CompactSerializer.builder(Car.class, TYPE_ID)
+                .version(1, "number", "name")
+                .build();
+    }
+}
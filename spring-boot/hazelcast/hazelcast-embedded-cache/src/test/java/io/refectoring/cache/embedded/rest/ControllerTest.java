@@ -1,5 +1,6 @@
 package io.refectoring.cache.embedded.rest;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,9 +9,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -51,4 +56,63 @@ class ControllerTest {
         assertThat(response).isEqualToComparingFieldByField(car);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void putAllGetAll() throws Exception {
+        // given
+        Map<String, Car> cars = new HashMap<>();
+        cars.put("HH1234", Car.builder().number("HH1234").name("Audi").build());
+        cars.put("M5678", Car.builder().number("M5678").name("BMW").build());
+
+        // put all
+        mockMvc.perform(
+                put("/cars")
+                        .content(objectMapper.writeValueAsString(cars))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+        ).andExpect(status().isNoContent());
+
+        // get all
+        String json = mockMvc.perform(
+                get("/cars").param("numbers", "HH1234", "M5678", "B0000"))
+                .andExpect(status().isOk()
+        ).andReturn().getResponse().getContentAsString();
+        Map<String, Car> response = objectMapper.readValue(json, new TypeReference<Map<String, Car>>() {});
+
+        assertThat(response).isEqualTo(cars);
+    }
+
+    @Test
+    void putAllIfAbsentReturnsCachedCars() throws Exception {
+        // given
+        Car cached = Car.builder().number("K1111").name("Opel").build();
+        mockMvc.perform(
+                post("/cars/K1111")
+                        .content(objectMapper.writeValueAsString(cached))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+        ).andExpect(status().isCreated());
+        Map<String, Car> cars = new HashMap<>();
+        cars.put("K1111", Car.builder().number("K1111").name("Ford").build());
+        cars.put("K2222", Car.builder().number("K2222").name("Seat").build());
+
+        // put all if absent
+        String json = mockMvc.perform(
+                post("/cars")
+                        .content(objectMapper.writeValueAsString(cars))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+        ).andExpect(status().isCreated()
+        ).andReturn().getResponse().getContentAsString();
+        Map<String, Car> existing = objectMapper.readValue(json, new TypeReference<Map<String, Car>>() {});
+
+        assertThat(existing).containsOnlyKeys("K1111");
+        assertThat(existing.get("K1111")).isEqualTo(cached);
+        assertThat(getCar("K1111")).isEqualTo(cached);
+        assertThat(getCar("K2222")).isEqualTo(cars.get("K2222"));
+    }
+
+    private Car getCar(String number) throws Exception {
+        String json = mockMvc.perform(get("/cars/" + number))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, Car.class);
+    }
+}
@@ -0,0 +1,51 @@
+package io.refectoring.cache.embedded.serializer;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.StreamSerializer;
+import io.refectoring.cache.embedded.rest.Car;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactCarSerializerTest {
+
+    @Test
+    void roundTripsCar() {
+        InternalSerializationService serializationService = serializationService(Car.class, CompactCarSerializer.create());
+        Car car = Car.builder()
+                .number("BO5489")
+                .name("VW")
+                .build();
+
+        Car read = serializationService.toObject(serializationService.toData(car));
+
+        assertThat(read).isEqualTo(car);
+    }
+
+    @Test
+    void writesFewerBytesThanCarSerializer() {
+        Car car = Car.builder()
+                .number("BO5489")
+                .name("VW")
+                .build();
+
+        Data compact = serializationService(Car.class, CompactCarSerializer.create()).toData(car);
+        Data writeUtf = serializationService(Car.class, new CarSerializer()).toData(car);
+
+        assertThat(compact.totalSize()).isLessThan(writeUtf.totalSize());
+    }
+
+    private static <T> InternalSerializationService serializationService(Class<T> type, StreamSerializer<T> serializer) {
+        SerializationConfig config = new SerializationConfig()
+                .addSerializerConfig(new SerializerConfig()
+                        .setImplementation(serializer)
+                        .setTypeClass(type));
+        return new DefaultSerializationServiceBuilder()
+                .setConfig(config)
+                .build();
+    }
+}
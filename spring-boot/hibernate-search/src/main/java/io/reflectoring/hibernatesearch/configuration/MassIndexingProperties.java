@@ -0,0 +1,36 @@
+package io.reflectoring.hibernatesearch.configuration;
+
+import io.reflectoring.hibernatesearch.domain.Post;
+import io.reflectoring.hibernatesearch.domain.User;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Settings of the mass-indexing job, see {@link org.hibernate.search.MassIndexer}.
+ */
+@Component
+@ConfigurationProperties(prefix = "indexing")
+@Getter
+@Setter
+public class MassIndexingProperties {
+
+    /**
+     * Entity types to index, one after the other, in this order.
+     */
+    private List<Class<?>> entityTypes = List.of(User.class, Post.class);
+
+    private int threadsToLoadObjects = 4;
+
+    private int batchSizeToLoadObjects = 25;
+
+    private int idFetchSize = 100;
+
+    /**
+     * How often the progress of a running entity type is logged, in seconds.
+     */
+    private int progressLogIntervalSeconds = 10;
+}
@@ -16,10 +16,11 @@ public class StartupEvent implements ApplicationListener<ApplicationReadyEvent>
 
     @Override
     public void onApplicationEvent(ApplicationReadyEvent event) {
-        try {
-            service.initiateIndexing();
-        } catch (InterruptedException e) {
-            log.error("Failed to reindex entities ",e);
-        }
+        // the indexes are dropped and created at startup, so no checkpointed type may be skipped
+        service.initiateIndexing(false)
+                .ifPresent(indexing -> indexing.exceptionally(e -> {
+                    log.error("Failed to reindex entities ", e);
+                    return null;
+                }));
     }
 }
@@ -1,5 +1,6 @@
 package io.reflectoring.hibernatesearch.controller;
 
+import io.reflectoring.hibernatesearch.controller.dto.IndexingStatusResponse;
 import io.reflectoring.hibernatesearch.controller.dto.PostResponse;
 import io.reflectoring.hibernatesearch.controller.dto.UserResponse;
 import io.reflectoring.hibernatesearch.controller.mapper.PostMapper;
@@ -8,6 +9,8 @@ import io.reflectoring.hibernatesearch.service.IndexingService;
 import io.reflectoring.hibernatesearch.service.SearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -26,8 +29,16 @@ class IndexController {
     private final UserMapper userMapper;
 
     @PostMapping("/reindex")
-    public void reindex() throws InterruptedException {
-        indexingService.initiateIndexing();
+    public ResponseEntity<Void> reindex(@RequestParam(defaultValue = "false") boolean resume) {
+        if (indexingService.initiateIndexing(resume).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping("/reindex/status")
+    public IndexingStatusResponse getReindexStatus() {
+        return new IndexingStatusResponse(indexingService.isRunning(), indexingService.getProgress());
     }
 
     @GetMapping("/user")
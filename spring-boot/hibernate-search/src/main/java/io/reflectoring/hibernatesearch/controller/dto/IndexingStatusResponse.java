@@ -0,0 +1,39 @@
+package io.reflectoring.hibernatesearch.controller.dto;
+
+import io.reflectoring.hibernatesearch.service.IndexingProgress;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Getter
+public class IndexingStatusResponse {
+    private final boolean running;
+    private final List<EntityTypeStatus> entityTypes;
+
+    public IndexingStatusResponse(boolean running, List<IndexingProgress> progress) {
+        this.running = running;
+        this.entityTypes = progress.stream().map(EntityTypeStatus::new).collect(Collectors.toList());
+    }
+
+    @Getter
+    public static class EntityTypeStatus {
+        private final String entityType;
+        private final IndexingProgress.State state;
+        private final long totalCount;
+        private final long entitiesLoaded;
+        private final long documentsAdded;
+        private final long elapsedMillis;
+        private final long documentsPerSecond;
+
+        EntityTypeStatus(IndexingProgress progress) {
+            this.entityType = progress.getEntityType();
+            this.state = progress.getState();
+            this.totalCount = progress.getTotalCount();
+            this.entitiesLoaded = progress.getEntitiesLoaded();
+            this.documentsAdded = progress.getDocumentsAdded();
+            this.elapsedMillis = progress.getElapsed().toMillis();
+            this.documentsPerSecond = Math.round(progress.getDocumentsPerSecond());
+        }
+    }
+}
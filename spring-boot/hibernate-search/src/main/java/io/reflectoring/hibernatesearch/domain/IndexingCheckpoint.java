@@ -0,0 +1,32 @@
+package io.reflectoring.hibernatesearch.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+/**
+ * Records that an entity type has been fully indexed by a mass-indexing run that has not finished
+ * yet, so that a resumed run can skip it.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+public class IndexingCheckpoint {
+  @Id
+  private String entityType;
+
+  private long documents;
+
+  private LocalDateTime completedAt;
+
+  public IndexingCheckpoint(String entityType, long documents, LocalDateTime completedAt) {
+    this.entityType = entityType;
+    this.documents = documents;
+    this.completedAt = completedAt;
+  }
+}
@@ -0,0 +1,14 @@
+package io.reflectoring.hibernatesearch.service;
+
+import org.hibernate.search.batchindexing.MassIndexerProgressMonitor;
+
+/**
+ * Rebuilds the search index of a single entity type.
+ */
+interface EntityIndexer {
+
+    /**
+     * Indexes all entities of the type and returns when they are indexed.
+     */
+    void index(Class<?> entityType, MassIndexerProgressMonitor progressMonitor) throws InterruptedException;
+}
@@ -0,0 +1,113 @@
+package io.reflectoring.hibernatesearch.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.search.batchindexing.MassIndexerProgressMonitor;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of the mass indexing of one entity type, updated by the {@link org.hibernate.search.MassIndexer}
+ * threads and logged at most once per log interval.
+ */
+@Slf4j
+public class IndexingProgress implements MassIndexerProgressMonitor {
+
+    public enum State {
+        PENDING, SKIPPED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String entityType;
+    private final long logIntervalNanos;
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong entitiesLoaded = new AtomicLong();
+    private final AtomicLong documentsAdded = new AtomicLong();
+    private final AtomicLong lastLog = new AtomicLong();
+    private volatile State state = State.PENDING;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+
+    IndexingProgress(String entityType, Duration logInterval) {
+        this.entityType = entityType;
+        this.logIntervalNanos = logInterval.toNanos();
+    }
+
+    void started() {
+        startedAt = System.nanoTime();
+        lastLog.set(startedAt);
+        state = State.RUNNING;
+    }
+
+    void skipped() {
+        state = State.SKIPPED;
+    }
+
+    void finished(boolean successful) {
+        finishedAt = System.nanoTime();
+        state = successful ? State.COMPLETED : State.FAILED;
+        log.info("{} indexing of {}: {} of {} documents in {} s ({} documents/s)", state, entityType,
+                getDocumentsAdded(), getTotalCount(), getElapsed().getSeconds(), Math.round(getDocumentsPerSecond()));
+    }
+
+    @Override
+    public void addToTotalCount(long count) {
+        totalCount.addAndGet(count);
+    }
+
+    @Override
+    public void entitiesLoaded(int size) {
+        entitiesLoaded.addAndGet(size);
+    }
+
+    @Override
+    public void documentsBuilt(int number) {
+    }
+
+    @Override
+    public void documentsAdded(long increment) {
+        documentsAdded.addAndGet(increment);
+        long now = System.nanoTime();
+        long last = lastLog.get();
+        if (now - last >= logIntervalNanos && lastLog.compareAndSet(last, now)) {
+            log.info("indexing {}: {} of {} documents ({} documents/s)", entityType,
+                    getDocumentsAdded(), getTotalCount(), Math.round(getDocumentsPerSecond()));
+        }
+    }
+
+    @Override
+    public void indexingCompleted() {
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded.get();
+    }
+
+    public long getDocumentsAdded() {
+        return documentsAdded.get();
+    }
+
+    public Duration getElapsed() {
+        if (state == State.PENDING || state == State.SKIPPED) {
+            return Duration.ZERO;
+        }
+        long end = state == State.RUNNING ? System.nanoTime() : finishedAt;
+        return Duration.ofNanos(end - startedAt);
+    }
+
+    public double getDocumentsPerSecond() {
+        long elapsedNanos = getElapsed().toNanos();
+        return elapsedNanos == 0 ? 0 : getDocumentsAdded() * 1e9 / elapsedNanos;
+    }
+}
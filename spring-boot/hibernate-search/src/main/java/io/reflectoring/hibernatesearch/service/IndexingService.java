@@ -1,26 +1,139 @@
 package io.reflectoring.hibernatesearch.service;
 
-import lombok.RequiredArgsConstructor;
+import io.reflectoring.hibernatesearch.configuration.MassIndexingProperties;
+import io.reflectoring.hibernatesearch.domain.IndexingCheckpoint;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.search.jpa.FullTextEntityManager;
-import org.hibernate.search.jpa.Search;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PreDestroy;
 import javax.persistence.EntityManager;
-import javax.transaction.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Rebuilds the search indexes one entity type after the other with the {@link EntityIndexer}, in
+ * the background. Each indexed type is recorded as a checkpoint, so a run that failed or was
+ * interrupted can be resumed without indexing the completed types again.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class IndexingService {
 
     private final EntityManager em;
+    private final EntityIndexer entityIndexer;
+    private final TransactionTemplate transactionTemplate;
+    private final MassIndexingProperties properties;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, IndexingProgress> progress = Collections.emptyMap();
 
-    @Transactional
-    public void initiateIndexing() throws InterruptedException {
+    IndexingService(EntityManager em,
+                    EntityIndexer entityIndexer,
+                    TransactionTemplate transactionTemplate,
+                    MassIndexingProperties properties) {
+        this.em = em;
+        this.entityIndexer = entityIndexer;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Starts indexing all entity types in the background.
+     *
+     * @param resume whether to skip the entity types completed by a previous, unfinished run.
+     * @return completes when all entity types are indexed, empty if indexing is already running.
+     */
+    public Optional<CompletableFuture<Void>> initiateIndexing(boolean resume) {
+        if (!running.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        Duration logInterval = Duration.ofSeconds(properties.getProgressLogIntervalSeconds());
+        Map<String, IndexingProgress> newProgress = new LinkedHashMap<>();
+        for (Class<?> entityType : properties.getEntityTypes()) {
+            newProgress.put(entityType.getSimpleName(), new IndexingProgress(entityType.getSimpleName(), logInterval));
+        }
+        progress = Collections.unmodifiableMap(newProgress);
+        try {
+            return Optional.of(CompletableFuture.runAsync(() -> indexAll(resume), executor)
+                    .whenComplete((result, e) -> running.set(false)));
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Progress of the current or last run, per entity type, in indexing order.
+     */
+    public List<IndexingProgress> getProgress() {
+        return new ArrayList<>(progress.values());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void indexAll(boolean resume) {
+        if (!resume) {
+            clearCheckpoints();
+        }
         log.info("Initiating indexing...");
-        FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(em);
-        fullTextEntityManager.createIndexer().startAndWait();
+        for (Class<?> entityType : properties.getEntityTypes()) {
+            IndexingProgress typeProgress = progress.get(entityType.getSimpleName());
+            if (isCheckpointed(entityType)) {
+                log.info("{} already indexed, skipping", entityType.getSimpleName());
+                typeProgress.skipped();
+                continue;
+            }
+            index(entityType, typeProgress);
+        }
+        clearCheckpoints();
         log.info("All entities indexed");
     }
+
+    private void index(Class<?> entityType, IndexingProgress typeProgress) {
+        typeProgress.started();
+        try {
+            entityIndexer.index(entityType, typeProgress);
+        } catch (InterruptedException e) {
+            typeProgress.finished(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Indexing of " + entityType.getSimpleName() + " was interrupted", e);
+        } catch (RuntimeException e) {
+            typeProgress.finished(false);
+            throw e;
+        }
+        typeProgress.finished(true);
+        saveCheckpoint(entityType, typeProgress.getDocumentsAdded());
+    }
+
+    private boolean isCheckpointed(Class<?> entityType) {
+        return em.find(IndexingCheckpoint.class, entityType.getName()) != null;
+    }
+
+    private void saveCheckpoint(Class<?> entityType, long documents) {
+        transactionTemplate.executeWithoutResult(status ->
+                em.merge(new IndexingCheckpoint(entityType.getName(), documents, LocalDateTime.now())));
+    }
+
+    private void clearCheckpoints() {
+        transactionTemplate.executeWithoutResult(status ->
+                em.createQuery("delete from IndexingCheckpoint").executeUpdate());
+    }
 }
@@ -0,0 +1,44 @@
+package io.reflectoring.hibernatesearch.service;
+
+import io.reflectoring.hibernatesearch.configuration.MassIndexingProperties;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.search.batchindexing.MassIndexerProgressMonitor;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.Search;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Indexes an entity type with a {@link org.hibernate.search.MassIndexer} tuned by the
+ * {@link MassIndexingProperties}.
+ */
+@Component
+@RequiredArgsConstructor
+class MassEntityIndexer implements EntityIndexer {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MassIndexingProperties properties;
+
+    @Override
+    public void index(Class<?> entityType, MassIndexerProgressMonitor progressMonitor) throws InterruptedException {
+        // the mass indexer opens its own sessions, this one only has to outlive it
+        EntityManager indexerEm = entityManagerFactory.createEntityManager();
+        try {
+            FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(indexerEm);
+            fullTextEntityManager.createIndexer(entityType)
+                    .typesToIndexInParallel(1)
+                    .threadsToLoadObjects(properties.getThreadsToLoadObjects())
+                    .batchSizeToLoadObjects(properties.getBatchSizeToLoadObjects())
+                    .idFetchSize(properties.getIdFetchSize())
+                    .cacheMode(CacheMode.IGNORE)
+                    .purgeAllOnStart(true)
+                    .progressMonitor(progressMonitor)
+                    .startAndWait();
+        } finally {
+            indexerEm.close();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.reflectoring.hibernatesearch.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class IndexingProgressTest {
+
+    private final IndexingProgress progress = new IndexingProgress("User", Duration.ofSeconds(10));
+
+    @Test
+    void countsReportedByTheIndexerThreads() {
+        progress.started();
+        progress.addToTotalCount(60);
+        progress.addToTotalCount(40);
+        progress.entitiesLoaded(25);
+        progress.entitiesLoaded(25);
+        progress.documentsAdded(30);
+        progress.documentsAdded(12);
+
+        assertThat(progress.getState()).isEqualTo(IndexingProgress.State.RUNNING);
+        assertThat(progress.getTotalCount()).isEqualTo(100);
+        assertThat(progress.getEntitiesLoaded()).isEqualTo(50);
+        assertThat(progress.getDocumentsAdded()).isEqualTo(42);
+    }
+
+    @Test
+    void throughputIsMeasuredOverTheElapsedTime() throws Exception {
+        progress.started();
+        progress.documentsAdded(500);
+        Thread.sleep(100);
+        progress.finished(true);
+
+        Duration elapsed = progress.getElapsed();
+        assertThat(elapsed).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        assertThat(progress.getDocumentsPerSecond()).isCloseTo(500 * 1e9 / elapsed.toNanos(), within(1e-6));
+        assertThat(progress.getState()).isEqualTo(IndexingProgress.State.COMPLETED);
+
+        // a finished run no longer ages
+        Thread.sleep(20);
+        assertThat(progress.getElapsed()).isEqualTo(elapsed);
+    }
+
+    @Test
+    void failedRunKeepsItsCounts() {
+        progress.started();
+        progress.documentsAdded(7);
+        progress.finished(false);
+
+        assertThat(progress.getState()).isEqualTo(IndexingProgress.State.FAILED);
+        assertThat(progress.getDocumentsAdded()).isEqualTo(7);
+    }
+
+    @Test
+    void pendingAndSkippedTypesHaveNoThroughput() {
+        assertThat(progress.getState()).isEqualTo(IndexingProgress.State.PENDING);
+        assertThat(progress.getElapsed()).isEqualTo(Duration.ZERO);
+        assertThat(progress.getDocumentsPerSecond()).isZero();
+
+        progress.skipped();
+
+        assertThat(progress.getState()).isEqualTo(IndexingProgress.State.SKIPPED);
+        assertThat(progress.getElapsed()).isEqualTo(Duration.ZERO);
+        assertThat(progress.getDocumentsPerSecond()).isZero();
+    }
+}
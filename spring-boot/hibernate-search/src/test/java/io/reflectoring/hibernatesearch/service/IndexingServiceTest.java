@@ -0,0 +1,141 @@
+package io.reflectoring.hibernatesearch.service;
+
+import io.reflectoring.hibernatesearch.configuration.MassIndexingProperties;
+import io.reflectoring.hibernatesearch.domain.IndexingCheckpoint;
+import io.reflectoring.hibernatesearch.domain.Post;
+import io.reflectoring.hibernatesearch.domain.User;
+import org.hibernate.search.batchindexing.MassIndexerProgressMonitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndexingServiceTest {
+
+    private final EntityManager em = mock(EntityManager.class);
+    private final Query deleteCheckpoints = mock(Query.class);
+    private final EntityIndexer entityIndexer = mock(EntityIndexer.class);
+    private IndexingService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(em.createQuery("delete from IndexingCheckpoint")).thenReturn(deleteCheckpoints);
+        // every indexed type reports three documents
+        doAnswer(invocation -> {
+            invocation.<MassIndexerProgressMonitor>getArgument(1).documentsAdded(3);
+            return null;
+        }).when(entityIndexer).index(any(), any());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        service = new IndexingService(em, entityIndexer, transactionTemplate, new MassIndexingProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void resumedRunSkipsCheckpointedTypes() throws Exception {
+        checkpoint(User.class);
+
+        await(service.initiateIndexing(true));
+
+        verify(entityIndexer, never()).index(eq(User.class), any());
+        verify(entityIndexer).index(eq(Post.class), any());
+        assertThat(states()).containsExactly("SKIPPED", "COMPLETED");
+        // the completed run leaves no checkpoints behind
+        verify(deleteCheckpoints).executeUpdate();
+    }
+
+    @Test
+    void freshRunClearsCheckpointsBeforeIndexing() throws Exception {
+        await(service.initiateIndexing(false));
+
+        InOrder inOrder = inOrder(deleteCheckpoints, entityIndexer);
+        inOrder.verify(deleteCheckpoints).executeUpdate();
+        inOrder.verify(entityIndexer).index(eq(User.class), any());
+        inOrder.verify(entityIndexer).index(eq(Post.class), any());
+        inOrder.verify(deleteCheckpoints).executeUpdate();
+        assertThat(states()).containsExactly("COMPLETED", "COMPLETED");
+    }
+
+    @Test
+    void failedRunKeepsCheckpointsOfCompletedTypes() throws Exception {
+        doThrow(new IllegalStateException("cluster unavailable")).when(entityIndexer).index(eq(Post.class), any());
+
+        CompletableFuture<Void> indexing = service.initiateIndexing(true).orElseThrow();
+
+        assertThatThrownBy(() -> indexing.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("cluster unavailable");
+        ArgumentCaptor<IndexingCheckpoint> checkpoint = ArgumentCaptor.forClass(IndexingCheckpoint.class);
+        verify(em).merge(checkpoint.capture());
+        assertThat(checkpoint.getValue().getEntityType()).isEqualTo(User.class.getName());
+        assertThat(checkpoint.getValue().getDocuments()).isEqualTo(3);
+        verify(deleteCheckpoints, never()).executeUpdate();
+        assertThat(states()).containsExactly("COMPLETED", "FAILED");
+        assertThat(service.isRunning()).isFalse();
+    }
+
+    @Test
+    void onlyOneRunAtATime() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(entityIndexer).index(eq(User.class), any());
+
+        Optional<CompletableFuture<Void>> first = service.initiateIndexing(false);
+        assertThat(service.initiateIndexing(false)).isEmpty();
+        assertThat(service.isRunning()).isTrue();
+
+        release.countDown();
+        await(first);
+        assertThat(service.isRunning()).isFalse();
+        await(service.initiateIndexing(true));
+        verify(entityIndexer, times(2)).index(eq(Post.class), any());
+    }
+
+    private void checkpoint(Class<?> entityType) {
+        when(em.find(IndexingCheckpoint.class, entityType.getName()))
+                .thenReturn(new IndexingCheckpoint(entityType.getName(), 3, LocalDateTime.now()));
+    }
+
+    private List<String> states() {
+        return service.getProgress().stream()
+                .map(progress -> progress.getState().name())
+                .collect(Collectors.toList());
+    }
+
+    private static void await(Optional<CompletableFuture<Void>> indexing) throws Exception {
+        indexing.orElseThrow().get(5, TimeUnit.SECONDS);
+    }
+}
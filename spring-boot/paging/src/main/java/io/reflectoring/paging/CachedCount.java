@@ -0,0 +1,41 @@
+package io.reflectoring.paging;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers a count for a while, so that paging requests don't run a {@code COUNT(*)} query each.
+ */
+class CachedCount {
+
+	private final LongSupplier counter;
+	private final long timeToLiveNanos;
+	private volatile Snapshot snapshot;
+
+	CachedCount(LongSupplier counter, Duration timeToLive) {
+		this.counter = counter;
+		this.timeToLiveNanos = timeToLive.toNanos();
+	}
+
+	long get() {
+		Snapshot current = snapshot;
+		long now = System.nanoTime();
+		if (current == null || now - current.countedAt > timeToLiveNanos) {
+			current = new Snapshot(counter.getAsLong(), now);
+			snapshot = current;
+		}
+		return current.count;
+	}
+
+	private static class Snapshot {
+
+		private final long count;
+		private final long countedAt;
+
+		Snapshot(long count, long countedAt) {
+			this.count = count;
+			this.countedAt = countedAt;
+		}
+	}
+
+}
@@ -0,0 +1,41 @@
+package io.reflectoring.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Position of the last character of a keyset page in the {@code name DESC, id ASC} ordering,
+ * encoded as an opaque continuation token.
+ */
+@Value
+class CharacterCursor {
+
+	@NonNull
+	private final String name;
+	private final Long id;
+
+	static CharacterCursor after(MovieCharacter character) {
+		return new CharacterCursor(character.getName(), character.getId());
+	}
+
+	String encode() {
+		String position = id + ":" + name;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the token was not created by {@link #encode()}.
+	 */
+	static CharacterCursor decode(String token) {
+		String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+		int separator = position.indexOf(':');
+		if (separator < 0) {
+			throw new IllegalArgumentException("invalid continuation token: " + token);
+		}
+		return new CharacterCursor(position.substring(separator + 1), Long.valueOf(position.substring(0, separator)));
+	}
+
+}
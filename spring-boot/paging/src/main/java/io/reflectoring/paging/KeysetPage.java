@@ -0,0 +1,18 @@
+package io.reflectoring.paging;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * A page of a keyset (seek) pagination. The next page is requested with the {@code continuation}
+ * token, which is {@code null} on the last page.
+ */
+@Value
+class KeysetPage<T> {
+
+	private final List<T> content;
+	private final String continuation;
+	private final Long totalElements;
+
+}
@@ -2,19 +2,24 @@ package io.reflectoring.paging;
 
 import lombok.Data;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 
 @Entity
 @Data
-@Table(name = "character")
+// supports the keyset pagination, which seeks by name and id
+@Table(name = "character", indexes = @Index(name = "character_name_id", columnList = "name DESC, id ASC"))
 class MovieCharacter {
 
   @Id
   @GeneratedValue
   private Long id;
+  // the keyset seek "name < :name" never matches NULLs, so every character needs a name
+  @Column(nullable = false)
   private String name;
   private String movie;
 
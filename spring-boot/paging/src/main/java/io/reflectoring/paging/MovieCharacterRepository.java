@@ -31,4 +31,21 @@ interface MovieCharacterRepository
 	@Query("select c from MovieCharacter c where c.movie = :movie")
 	List<MovieCharacter> findByMovieSorted(
 			@Param("movie") String movieName, Sort sort);
+
+	/**
+	 * First page of the keyset pagination, ordered by {@code name DESC, id ASC}. Only the page size
+	 * of {@code limit} is used.
+	 */
+	@Query("select c from MovieCharacter c order by c.name desc, c.id asc")
+	List<MovieCharacter> findFirstKeysetPage(Pageable limit);
+
+	/**
+	 * Page of the keyset pagination that follows the character with the given name and id. Only the
+	 * page size of {@code limit} is used.
+	 */
+	@Query("select c from MovieCharacter c"
+			+ " where c.name < :name or (c.name = :name and c.id > :id)"
+			+ " order by c.name desc, c.id asc")
+	List<MovieCharacter> findKeysetPageAfter(
+			@Param("name") String name, @Param("id") Long id, Pageable limit);
 }
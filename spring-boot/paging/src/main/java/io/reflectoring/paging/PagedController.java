@@ -1,23 +1,31 @@
 package io.reflectoring.paging;
 
+import java.time.Duration;
 import java.util.List;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequiredArgsConstructor
 class PagedController {
 
+	private static final int MAX_KEYSET_PAGE_SIZE = 2000;
+
 	private final MovieCharacterRepository characterRepository;
+	private final CachedCount characterCount = new CachedCount(this::countCharacters, Duration.ofMinutes(1));
 
 	@GetMapping(path = "/characters/page")
 	Page<MovieCharacter> loadCharactersPage(
@@ -45,4 +53,47 @@ class PagedController {
 	Slice<MovieCharacter> loadCharactersSlice(Pageable pageable) {
 		return characterRepository.findAllSlice(pageable);
 	}
+
+	/**
+	 * Keyset pagination in the same order as {@link #loadCharactersPage}, {@code name DESC, id ASC}.
+	 * Each page seeks to the position after the previous one, so deep pages are as cheap as the first.
+	 * The total count is only returned on request and may be up to a minute old.
+	 */
+	@GetMapping(path = "/characters/keyset")
+	KeysetPage<MovieCharacter> loadCharactersKeyset(
+			@RequestParam(defaultValue = "20") int size,
+			@RequestParam(required = false) String continuation,
+			@RequestParam(defaultValue = "false") boolean count) {
+		if (size < 1 || size > MAX_KEYSET_PAGE_SIZE) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + MAX_KEYSET_PAGE_SIZE);
+		}
+		// one more than requested, to know if there is a next page
+		PageRequest limit = PageRequest.of(0, size + 1);
+		List<MovieCharacter> characters;
+		if (continuation == null) {
+			characters = characterRepository.findFirstKeysetPage(limit);
+		} else {
+			CharacterCursor cursor = decode(continuation);
+			characters = characterRepository.findKeysetPageAfter(cursor.getName(), cursor.getId(), limit);
+		}
+
+		String next = null;
+		if (characters.size() > size) {
+			characters = characters.subList(0, size);
+			next = CharacterCursor.after(characters.get(size - 1)).encode();
+		}
+		return new KeysetPage<>(characters, next, count ? characterCount.get() : null);
+	}
+
+	private CharacterCursor decode(String continuation) {
+		try {
+			return CharacterCursor.decode(continuation);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid continuation token", e);
+		}
+	}
+
+	private long countCharacters() {
+		return characterRepository.count();
+	}
 }
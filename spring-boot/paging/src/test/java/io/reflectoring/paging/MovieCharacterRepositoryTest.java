@@ -3,7 +3,14 @@ package io.reflectoring.paging;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.PersistenceException;
+
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import static org.assertj.core.api.Assertions.*;
 
 @DataJpaTest
@@ -12,6 +19,9 @@ class MovieCharacterRepositoryTest {
 	@Autowired
 	private MovieCharacterRepository characterRepository;
 
+	@Autowired
+	private TestEntityManager entityManager;
+
 	@Test
 	void returnsPage() {
 		// database is initialized with script "data.sql"
@@ -36,4 +46,30 @@ class MovieCharacterRepositoryTest {
 
 	}
 
-}
\ No newline at end of file
+	@Test
+	void keysetPagesFollowSortOrder() {
+		// database is initialized with script "data.sql"
+		List<MovieCharacter> expected = characterRepository.findAllSorted(
+				Sort.by(Sort.Order.desc("name"), Sort.Order.asc("id")));
+
+		List<MovieCharacter> actual = new ArrayList<>();
+		List<MovieCharacter> page = characterRepository.findFirstKeysetPage(PageRequest.of(0, 5));
+		while (!page.isEmpty()) {
+			actual.addAll(page);
+			MovieCharacter last = page.get(page.size() - 1);
+			page = characterRepository.findKeysetPageAfter(last.getName(), last.getId(), PageRequest.of(0, 5));
+		}
+
+		assertThat(actual).isEqualTo(expected);
+	}
+
+	@Test
+	void rejectsCharacterWithoutName() {
+		MovieCharacter character = new MovieCharacter();
+		character.setMovie("Star Wars");
+
+		assertThatThrownBy(() -> entityManager.persistAndFlush(character))
+				.isInstanceOf(PersistenceException.class);
+	}
+
+}
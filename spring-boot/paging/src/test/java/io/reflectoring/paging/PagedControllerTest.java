@@ -1,5 +1,8 @@
 package io.reflectoring.paging;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -138,4 +141,47 @@ class PagedControllerTest {
 
 	}
 
+	@Test
+	void returnsKeysetPageWithContinuation() throws Exception {
+
+		when(characterRepository.findFirstKeysetPage(PageRequest.of(0, 3)))
+				.thenReturn(Arrays.asList(character(5L, "Zaphod"), character(3L, "Star-Lord"), character(1L, "Groot")));
+
+		String continuation = new CharacterCursor("Star-Lord", 3L).encode();
+		mockMvc.perform(get("/characters/keyset")
+				.param("size", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content.length()").value(2))
+				.andExpect(jsonPath("$.continuation").value(continuation))
+				.andExpect(jsonPath("$.totalElements").doesNotExist());
+
+		when(characterRepository.findKeysetPageAfter("Star-Lord", 3L, PageRequest.of(0, 3)))
+				.thenReturn(Collections.singletonList(character(1L, "Groot")));
+		when(characterRepository.count()).thenReturn(3L);
+
+		mockMvc.perform(get("/characters/keyset")
+				.param("size", "2")
+				.param("continuation", continuation)
+				.param("count", "true"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content.length()").value(1))
+				.andExpect(jsonPath("$.continuation").doesNotExist())
+				.andExpect(jsonPath("$.totalElements").value(3));
+	}
+
+	@Test
+	void rejectsInvalidContinuation() throws Exception {
+
+		mockMvc.perform(get("/characters/keyset")
+				.param("continuation", "not a token"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private MovieCharacter character(Long id, String name) {
+		MovieCharacter character = new MovieCharacter();
+		character.setId(id);
+		character.setName(name);
+		return character;
+	}
+
 }
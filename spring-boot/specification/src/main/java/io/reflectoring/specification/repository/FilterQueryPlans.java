@@ -0,0 +1,162 @@
+package io.reflectoring.specification.repository;
+
+import io.reflectoring.specification.model.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Turns lists of {@link Filter}s into product queries. The query for a filter shape, i.e. the fields
+ * and operators of the filters, is built once, with parameters in place of the values, and reused for
+ * all filter lists of the same shape. Executing a filter list then only converts and binds its values.
+ */
+@Component
+@RequiredArgsConstructor
+class FilterQueryPlans {
+
+    private static final int MAX_CACHED_PLANS = 1000;
+
+    private final EntityManager entityManager;
+    private final Map<List<FilterShape>, FilterQueryPlan> plans = new ConcurrentHashMap<>();
+
+    List<Product> execute(List<Filter> filters) {
+        return plan(filters).execute(entityManager, filters);
+    }
+
+    FilterQueryPlan plan(List<Filter> filters) {
+        List<FilterShape> shape = new ArrayList<>(filters.size());
+        for (Filter filter : filters) {
+            shape.add(new FilterShape(filter.getField(), filter.getOperator()));
+        }
+        FilterQueryPlan plan = plans.get(shape);
+        if (plan != null) {
+            return plan;
+        }
+        plan = compile(shape);
+        // don't let unusual shapes grow the cache without bound
+        if (plans.size() < MAX_CACHED_PLANS) {
+            FilterQueryPlan existing = plans.putIfAbsent(shape, plan);
+            return existing != null ? existing : plan;
+        }
+        return plan;
+    }
+
+    private FilterQueryPlan compile(List<FilterShape> shape) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = criteriaBuilder.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        List<Predicate> predicates = new ArrayList<>(shape.size());
+        List<Binding> bindings = new ArrayList<>(shape.size());
+        for (int i = 0; i < shape.size(); i++) {
+            predicates.add(compile(criteriaBuilder, root, shape.get(i), "p" + i, bindings));
+        }
+        query.select(root).where(predicates.toArray(new Predicate[0]));
+        return new FilterQueryPlan(query, bindings);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate compile(CriteriaBuilder criteriaBuilder, Root<Product> root, FilterShape shape,
+                              String parameterName, List<Binding> bindings) {
+        Path path = root.get(shape.getField());
+        Function<String, Object> converter = converterFor(path.getJavaType());
+        switch (shape.getOperator()) {
+            case EQUALS: {
+                ParameterExpression parameter = criteriaBuilder.parameter(path.getJavaType(), parameterName);
+                bindings.add(new Binding(parameter, filter -> converter.apply(filter.getValue())));
+                return criteriaBuilder.equal(path, parameter);
+            }
+            case NOT_EQ: {
+                ParameterExpression parameter = criteriaBuilder.parameter(path.getJavaType(), parameterName);
+                bindings.add(new Binding(parameter, filter -> converter.apply(filter.getValue())));
+                return criteriaBuilder.notEqual(path, parameter);
+            }
+            case GREATER_THAN: {
+                ParameterExpression parameter = criteriaBuilder.parameter(path.getJavaType(), parameterName);
+                bindings.add(new Binding(parameter, filter -> converter.apply(filter.getValue())));
+                return criteriaBuilder.gt((Expression<Number>) path, (Expression<Number>) parameter);
+            }
+            case LESS_THAN: {
+                ParameterExpression parameter = criteriaBuilder.parameter(path.getJavaType(), parameterName);
+                bindings.add(new Binding(parameter, filter -> converter.apply(filter.getValue())));
+                return criteriaBuilder.lt((Expression<Number>) path, (Expression<Number>) parameter);
+            }
+            case LIKE: {
+                ParameterExpression<String> parameter = criteriaBuilder.parameter(String.class, parameterName);
+                bindings.add(new Binding(parameter, filter -> "%" + filter.getValue() + "%"));
+                return criteriaBuilder.like(path, parameter);
+            }
+            case IN: {
+                ParameterExpression<Collection> parameter = criteriaBuilder.parameter(Collection.class, parameterName);
+                bindings.add(new Binding(parameter, filter -> {
+                    List<Object> values = new ArrayList<>(filter.getValues().size());
+                    for (String value : filter.getValues()) {
+                        values.add(converter.apply(value));
+                    }
+                    return values;
+                }));
+                return path.in(parameter);
+            }
+            default:
+                throw new RuntimeException("Operation not supported yet");
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<String, Object> converterFor(Class fieldType) {
+        if (fieldType.isAssignableFrom(Double.class)) {
+            return Double::valueOf;
+        } else if (fieldType.isAssignableFrom(Integer.class)) {
+            return Integer::valueOf;
+        } else if (Enum.class.isAssignableFrom(fieldType)) {
+            return value -> Enum.valueOf(fieldType, value);
+        } else if (fieldType.isAssignableFrom(String.class)) {
+            return value -> value;
+        }
+        return value -> null;
+    }
+
+    @Value
+    static class FilterShape {
+        String field;
+        QueryOperator operator;
+    }
+
+    @Value
+    static class Binding {
+        ParameterExpression<?> parameter;
+        Function<Filter, Object> value;
+    }
+
+    @Value
+    static class FilterQueryPlan {
+        CriteriaQuery<Product> query;
+        List<Binding> bindings;
+
+        @SuppressWarnings("unchecked")
+        List<Product> execute(EntityManager entityManager, List<Filter> filters) {
+            TypedQuery<Product> typedQuery = entityManager.createQuery(query);
+            for (int i = 0; i < bindings.size(); i++) {
+                Binding binding = bindings.get(i);
+                typedQuery.setParameter((ParameterExpression<Object>) binding.getParameter(),
+                        binding.getValue().apply(filters.get(i)));
+            }
+            return typedQuery.getResultList();
+        }
+    }
+}
@@ -17,6 +17,9 @@ class CustomProductRepositoryTest {
     @Autowired
     private CustomProductRepository productRepository;
 
+    @Autowired
+    private FilterQueryPlans filterQueryPlans;
+
     @Test
     void getLowRangeProducts() {
         List<Product> products = productRepository.getLowRangeProducts(List.of(Category.MOBILE, Category.TV_APPLIANCES));
@@ -76,4 +79,32 @@ class CustomProductRepositoryTest {
         products = productRepository.getQueryResult(filters);
         assertEquals(1, products.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void reusesQueryPlanForSameFilterShape() {
+        List<Filter> cheapestProducts = new ArrayList<>(List.of(
+                Filter.builder().field("price").operator(QueryOperator.LESS_THAN).value("150").build(),
+                Filter.builder().field("category").operator(QueryOperator.IN)
+                        .values(List.of(Category.MOBILE.name())).build()));
+        List<Filter> lowRangeProducts = new ArrayList<>(List.of(
+                Filter.builder().field("price").operator(QueryOperator.LESS_THAN).value("1000").build(),
+                Filter.builder().field("category").operator(QueryOperator.IN)
+                        .values(List.of(Category.MOBILE.name(), Category.TV_APPLIANCES.name())).build()));
+
+        assertSame(filterQueryPlans.plan(cheapestProducts), filterQueryPlans.plan(lowRangeProducts));
+        assertEquals(1, productRepository.getQueryResult(cheapestProducts).size());
+        assertEquals(2, productRepository.getQueryResult(lowRangeProducts).size());
+        assertEquals(2, cheapestProducts.size());
+    }
+
+    @Test
+    void filtersStringFieldsByEquality() {
+        List<Filter> filters = List.of(
+                Filter.builder().field("id").operator(QueryOperator.EQUALS).value("prod_1").build());
+
+        List<Product> products = productRepository.getQueryResult(filters);
+
+        assertEquals(1, products.size());
+        assertEquals("prod_1", products.get(0).getId());
+    }
+}
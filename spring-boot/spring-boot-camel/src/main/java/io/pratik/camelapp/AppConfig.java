@@ -3,11 +3,17 @@
  */
 package io.pratik.camelapp;
 
+import java.util.concurrent.ExecutorService;
+
 import org.apache.camel.CamelContext;
 import org.apache.camel.ConsumerTemplate;
 import org.apache.camel.ProducerTemplate;
+import org.apache.camel.builder.ThreadPoolProfileBuilder;
 import org.apache.camel.component.servlet.CamelHttpTransportServlet;
+import org.apache.camel.spi.ThreadPoolProfile;
+import org.apache.camel.util.concurrent.ThreadPoolRejectedPolicy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.ServletRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -31,6 +37,22 @@ public class AppConfig {
 	    return servlet;
 	}
 	
+	/**
+	 * Pool for pricing the lines of an order in parallel. When all threads are busy and the queue
+	 * is full, the splitting thread prices the next line itself, which slows down the split.
+	 */
+	@Bean
+	ExecutorService pricingExecutor(@Value("${pricing.pool-size:8}") int poolSize,
+			@Value("${pricing.max-queue-size:1000}") int maxQueueSize) {
+		ThreadPoolProfile profile = new ThreadPoolProfileBuilder("pricing")
+				.poolSize(poolSize)
+				.maxPoolSize(poolSize)
+				.maxQueueSize(maxQueueSize)
+				.rejectedPolicy(ThreadPoolRejectedPolicy.CallerRuns)
+				.build();
+		return camelContext.getExecutorServiceManager().newThreadPool(this, "pricing", profile);
+	}
+	
 	@Bean
 	ProducerTemplate producerTemplate() {
 		return camelContext.createProducerTemplate();
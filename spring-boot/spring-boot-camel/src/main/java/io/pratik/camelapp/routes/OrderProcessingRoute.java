@@ -3,11 +3,15 @@
  */
 package io.pratik.camelapp.routes;
 
+import java.util.concurrent.ExecutorService;
+
 import org.apache.camel.builder.RouteBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
+import io.pratik.camelapp.services.OrderLineBatcher;
 import io.pratik.camelapp.services.PriceAggregationStrategy;
 
 /**
@@ -20,11 +24,20 @@ public class OrderProcessingRoute   extends RouteBuilder {
 	@Autowired
 	private PriceAggregationStrategy priceAggregationStrategy;
 
+	@Autowired
+	private OrderLineBatcher orderLineBatcher;
+
+	@Autowired
+	@Qualifier("pricingExecutor")
+	private ExecutorService pricingExecutor;
+
 	@Override
 	public void configure() throws Exception {
 		from("direct:fetchProcess")
-		.split(body(), priceAggregationStrategy).parallelProcessing()
-		.to("bean:pricingService?method=calculatePrice")
+		.process(exchange -> exchange.setProperty(PriceAggregationStrategy.SPLIT_STARTED, System.nanoTime()))
+		.split(method(orderLineBatcher, "batches"), priceAggregationStrategy).streaming().parallelProcessing()
+		.executorService(pricingExecutor)
+		.to("bean:pricingService?method=calculatePrices")
 		.end();
 	}
 
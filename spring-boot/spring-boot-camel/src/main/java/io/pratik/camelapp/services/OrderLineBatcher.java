@@ -0,0 +1,56 @@
+/**
+ * 
+ */
+package io.pratik.camelapp.services;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.pratik.camelapp.models.OrderLine;
+
+/**
+ * Splits the lines of an order into consecutive batches that are priced with one call each.
+ */
+@Component
+public class OrderLineBatcher {
+
+	private final int batchSize;
+
+	public OrderLineBatcher(@Value("${pricing.batch-size:100}") final int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("pricing.batch-size must be at least 1");
+		}
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Returns the batches lazily, as views of the given list, in the order of the lines.
+	 */
+	public Iterator<List<OrderLine>> batches(final List<OrderLine> orderLines) {
+		return new Iterator<List<OrderLine>>() {
+
+			private int from;
+
+			@Override
+			public boolean hasNext() {
+				return from < orderLines.size();
+			}
+
+			@Override
+			public List<OrderLine> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				int to = Math.min(from + batchSize, orderLines.size());
+				List<OrderLine> batch = orderLines.subList(from, to);
+				from = to;
+				return batch;
+			}
+		};
+	}
+
+}
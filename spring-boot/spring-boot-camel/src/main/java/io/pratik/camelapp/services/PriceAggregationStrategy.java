@@ -4,43 +4,127 @@
 package io.pratik.camelapp.services;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.camel.AggregationStrategy;
 import org.apache.camel.Exchange;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.pratik.camelapp.models.Order;
 import io.pratik.camelapp.models.OrderLine;
 
 /**
+ * Collects the batches of priced order lines of a parallel split and builds the {@link Order} once,
+ * when the split is complete. Batches may arrive in any order, they are put back into the order of the split.
+ *
  * @author pratikdas
  *
  */
 @Component
 public class PriceAggregationStrategy implements AggregationStrategy{
-	
+
+	/**
+	 * Exchange property with the {@link System#nanoTime()} at which the split started.
+	 */
+	public static final String SPLIT_STARTED = "pricingSplitStarted";
+
+	private final Timer splitTimer;
+	private final Timer aggregateTimer;
+	private final DistributionSummary orderLinesSummary;
+
+	public PriceAggregationStrategy(final MeterRegistry meterRegistry) {
+		this.splitTimer = Timer.builder("order.pricing.split")
+				.description("Time to split, price and aggregate the lines of an order")
+				.register(meterRegistry);
+		this.aggregateTimer = Timer.builder("order.pricing.aggregate")
+				.description("Time to merge the priced lines into the order")
+				.register(meterRegistry);
+		this.orderLinesSummary = DistributionSummary.builder("order.pricing.lines")
+				.description("Number of lines of priced orders")
+				.register(meterRegistry);
+	}
+
 	@Override
+	@SuppressWarnings("unchecked")
 	public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
-		OrderLine newBody = newExchange.getIn().getBody(OrderLine.class);
-        if (oldExchange == null) {
-            Order order = new Order();
-            order.setOrderNo(UUID.randomUUID().toString());
-            order.setOrderDate(Instant.now().toString());
-            order.setOrderPrice(newBody.getPrice());
-            order.addOrderLine(newBody);
-                 
-            newExchange.getIn().setBody(order, Order.class);
-            return newExchange;
-        }
-        OrderLine newOrderLine = newExchange.getIn().getBody(OrderLine.class);
-        Order order = oldExchange.getIn().getBody(Order.class);
-        order.setOrderPrice(order.getOrderPrice() + newOrderLine.getPrice());
-        order.addOrderLine(newOrderLine);
-        oldExchange.getIn().setBody(order);
-        
-        return oldExchange;
+		List<OrderLine> newOrderLines = newExchange.getIn().getBody(List.class);
+		int index = newExchange.getProperty(Exchange.SPLIT_INDEX, Integer.class);
+		if (oldExchange == null) {
+			PricedLines pricedLines = new PricedLines();
+			pricedLines.add(index, newOrderLines);
+			newExchange.getIn().setBody(pricedLines);
+			return newExchange;
+		}
+		oldExchange.getIn().getBody(PricedLines.class).add(index, newOrderLines);
+		return oldExchange;
+	}
+
+	@Override
+	public void onCompletion(Exchange exchange) {
+		if (!(exchange.getIn().getBody() instanceof PricedLines)) {
+			return;
+		}
+		long aggregateStarted = System.nanoTime();
+		PricedLines pricedLines = exchange.getIn().getBody(PricedLines.class);
+		Order order = new Order();
+		order.setOrderNo(UUID.randomUUID().toString());
+		order.setOrderDate(Instant.now().toString());
+		order.setOrderLines(pricedLines.inSplitOrder());
+		order.setOrderPrice(order.getOrderLines().stream().mapToDouble(OrderLine::getPrice).sum());
+		exchange.getIn().setBody(order, Order.class);
+
+		long completed = System.nanoTime();
+		aggregateTimer.record(completed - aggregateStarted, TimeUnit.NANOSECONDS);
+		orderLinesSummary.record(order.getOrderLines().size());
+		Long splitStarted = exchange.getProperty(SPLIT_STARTED, Long.class);
+		if (splitStarted != null) {
+			splitTimer.record(completed - splitStarted, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Priced batches of one order, added concurrently without locking.
+	 */
+	static class PricedLines {
+
+		private final ConcurrentLinkedQueue<IndexedBatch> batches = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger lineCount = new AtomicInteger();
+
+		void add(final int index, final List<OrderLine> orderLines) {
+			batches.add(new IndexedBatch(index, orderLines));
+			lineCount.addAndGet(orderLines.size());
+		}
+
+		List<OrderLine> inSplitOrder() {
+			IndexedBatch[] sorted = batches.toArray(new IndexedBatch[0]);
+			Arrays.sort(sorted, Comparator.comparingInt(batch -> batch.index));
+			List<OrderLine> orderLines = new ArrayList<OrderLine>(lineCount.get());
+			for (IndexedBatch batch : sorted) {
+				orderLines.addAll(batch.orderLines);
+			}
+			return orderLines;
+		}
+	}
+
+	private static class IndexedBatch {
+
+		private final int index;
+		private final List<OrderLine> orderLines;
+
+		IndexedBatch(final int index, final List<OrderLine> orderLines) {
+			this.index = index;
+			this.orderLines = orderLines;
+		}
 	}
 
 }
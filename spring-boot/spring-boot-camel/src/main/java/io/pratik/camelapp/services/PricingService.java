@@ -3,6 +3,12 @@
  */
 package io.pratik.camelapp.services;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.springframework.stereotype.Service;
 
 import io.pratik.camelapp.models.OrderLine;
@@ -15,15 +21,35 @@ import io.pratik.camelapp.models.OrderLine;
 public class PricingService {
 	
 	public OrderLine calculatePrice(final OrderLine orderLine ) {
-		String category = orderLine.getProduct().getProductCategory();
+		orderLine.setPrice(priceOf(orderLine.getProduct().getProductCategory()));
+		return orderLine;
+		
+	}
+
+	/**
+	 * Prices all lines with one lookup per distinct product category and returns them in the given order.
+	 */
+	public List<OrderLine> calculatePrices(final List<OrderLine> orderLines) {
+		Set<String> categories = orderLines.stream()
+				.map(orderLine -> orderLine.getProduct().getProductCategory())
+				.collect(Collectors.toSet());
+		Map<String, Double> prices = new HashMap<String, Double>();
+		for (String category : categories) {
+			prices.put(category, priceOf(category));
+		}
+		for (OrderLine orderLine : orderLines) {
+			orderLine.setPrice(prices.get(orderLine.getProduct().getProductCategory()));
+		}
+		return orderLines;
+	}
+
+	private double priceOf(final String category) {
 		if("Electronics".equalsIgnoreCase(category))
-		   orderLine.setPrice(300.0);
+		   return 300.0;
 		else if("Household".equalsIgnoreCase(category))
-			orderLine.setPrice(55.0);
+			return 55.0;
 		else
-			orderLine.setPrice(99.0);
-		return orderLine;
-		
+			return 99.0;
 	}
 
 }
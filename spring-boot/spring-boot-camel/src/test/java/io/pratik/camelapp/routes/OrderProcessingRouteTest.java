@@ -0,0 +1,63 @@
+package io.pratik.camelapp.routes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.ProducerTemplate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.pratik.camelapp.models.Order;
+import io.pratik.camelapp.models.OrderLine;
+import io.pratik.camelapp.models.Product;
+
+@SpringBootTest
+class OrderProcessingRouteTest {
+
+	@Autowired
+	private ProducerTemplate producerTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void pricesLargeOrderInSplitOrder() {
+		List<OrderLine> orderLines = new ArrayList<OrderLine>();
+		for (int i = 0; i < 20000; i++) {
+			OrderLine orderLine = new OrderLine();
+			orderLine.setNumberOfUnits(i);
+			orderLine.setProduct(new Product("Product " + i, i % 2 == 0 ? "Electronics" : "Household"));
+			orderLines.add(orderLine);
+		}
+
+		Order order = producerTemplate.requestBody("direct:fetchProcess", orderLines, Order.class);
+
+		assertThat(order.getOrderLines()).hasSize(20000);
+		for (int i = 0; i < 20000; i++) {
+			assertThat(order.getOrderLines().get(i).getNumberOfUnits()).isEqualTo(i);
+		}
+		assertThat(order.getOrderPrice()).isEqualTo(10000 * 300.0 + 10000 * 55.0);
+		assertThat(meterRegistry.get("order.pricing.split").timer().count()).isPositive();
+		assertThat(meterRegistry.get("order.pricing.aggregate").timer().count()).isPositive();
+	}
+
+	@Test
+	void pricesOrderSmallerThanOneBatch() {
+		List<OrderLine> orderLines = new ArrayList<OrderLine>();
+		for (String category : new String[] { "Household", "Toys", "Electronics" }) {
+			OrderLine orderLine = new OrderLine();
+			orderLine.setProduct(new Product(category + " product", category));
+			orderLines.add(orderLine);
+		}
+
+		Order order = producerTemplate.requestBody("direct:fetchProcess", orderLines, Order.class);
+
+		assertThat(order.getOrderLines()).extracting(OrderLine::getPrice).containsExactly(55.0, 99.0, 300.0);
+		assertThat(order.getOrderPrice()).isEqualTo(454.0);
+	}
+
+}
@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import io.pratik.elasticsearch.models.Product;
 import io.pratik.elasticsearch.services.ProductSearchService;
+import io.pratik.elasticsearch.services.SearchCacheStats;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -54,4 +55,10 @@ public class SearchController {
         return suggests;
 	  }
 
+	@GetMapping("/search-cache/stats")
+	@ResponseBody
+	public SearchCacheStats fetchSearchCacheStats() {
+		return searchService.getSearchCacheStats();
+	}
+
 }
@@ -0,0 +1,23 @@
+package io.pratik.elasticsearch.ingest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Outcome of a bulk ingestion run.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BulkIngestResult {
+
+	private final long indexed;
+
+	private final long failed;
+
+	private final long skippedRows;
+
+	private final long durationMillis;
+
+}
@@ -0,0 +1,96 @@
+package io.pratik.elasticsearch.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Reads CSV records (RFC 4180) one at a time from a character stream. Fields may be quoted, quoted
+ * fields may contain commas, line breaks and doubled quotes. Only the current record is held in memory.
+ */
+public class CsvReader implements Closeable {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Reader reader;
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private final StringBuilder field = new StringBuilder();
+	private int position;
+	private int limit;
+	private long recordNumber;
+
+	public CsvReader(final Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Reads the next record into {@code fields}, replacing its content.
+	 *
+	 * @return {@code false} if the end of the input is reached.
+	 */
+	public boolean readRecord(final List<String> fields) throws IOException {
+		fields.clear();
+		if (!fill()) {
+			return false;
+		}
+		field.setLength(0);
+		boolean quoted = false;
+		boolean fieldStarted = false;
+		while (fill()) {
+			char c = buffer[position++];
+			if (quoted) {
+				if (c != '"') {
+					field.append(c);
+				} else if (fill() && buffer[position] == '"') {
+					field.append('"');
+					position++;
+				} else {
+					quoted = false;
+				}
+			} else if (c == '"' && !fieldStarted) {
+				quoted = true;
+				fieldStarted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+				fieldStarted = false;
+			} else if (c == '\n' || c == '\r') {
+				if (c == '\r' && fill() && buffer[position] == '\n') {
+					position++;
+				}
+				break;
+			} else {
+				field.append(c);
+				fieldStarted = true;
+			}
+		}
+		fields.add(field.toString());
+		recordNumber++;
+		return true;
+	}
+
+	/**
+	 * Number of records read so far, including the header.
+	 */
+	public long getRecordNumber() {
+		return recordNumber;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	private boolean fill() throws IOException {
+		while (position == limit) {
+			limit = reader.read(buffer, 0, buffer.length);
+			position = 0;
+			if (limit < 0) {
+				limit = 0;
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -1,32 +1,22 @@
 package io.pratik.elasticsearch.productsearchapp;
 
-import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Optional;
-import java.util.Scanner;
-
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 
-import org.elasticsearch.client.RestHighLevelClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 
 import io.pratik.elasticsearch.models.Product;
 import io.pratik.elasticsearch.repositories.ProductRepository;
+import io.pratik.elasticsearch.services.ProductIngestService;
 import lombok.extern.slf4j.Slf4j;
 
 @SpringBootApplication
 @Slf4j
 public class ProductsearchappApplication {
-	
-	private static final String COMMA_DELIMITER = ",";
 
 	@Autowired
 	private ElasticsearchOperations esOps;
@@ -34,6 +24,9 @@ public class ProductsearchappApplication {
 	@Autowired
 	private ProductRepository productRepo;
 
+	@Autowired
+	private ProductIngestService productIngestService;
+
 	public static void main(String[] args) {
 		SpringApplication.run(ProductsearchappApplication.class, args);
 	}
@@ -49,50 +42,7 @@ public class ProductsearchappApplication {
 
 		esOps.indexOps(Product.class).refresh();
 		productRepo.deleteAll();
-		productRepo.saveAll(prepareDataset());
-	}
-
-	private Collection<Product> prepareDataset() {
-		Resource resource = new ClassPathResource("fashion-products.csv");
-		List<Product> productList = new ArrayList<Product>();
-
-		try (
-			InputStream input = resource.getInputStream();
-			Scanner scanner = new Scanner(resource.getInputStream());) {
-			int lineNo = 0;
-			while (scanner.hasNextLine()) {
-				++lineNo;				
-				String line = scanner.nextLine();
-				if(lineNo == 1) continue;
-				Optional<Product> product = 
-						csvRowToProductMapper(line);
-				if(product.isPresent())
-				productList.add(product.get());
-			}
-		} catch (Exception e) {
-			log.error("File read error {}",e);;
-		}
-		return productList;
-	}
-
-	private Optional<Product> csvRowToProductMapper(final String line) {
-		try (			
-			Scanner rowScanner = new Scanner(line)) {
-			rowScanner.useDelimiter(COMMA_DELIMITER);
-			while (rowScanner.hasNext()) {
-				String name = rowScanner.next();
-				String description = rowScanner.next();
-				String manufacturer = rowScanner.next();
-				return Optional.of(
-						Product.builder()
-						.name(name)
-						.description(description)
-						.manufacturer(manufacturer)
-						.build());
-
-			}
-		}
-		return Optional.of(null);
+		productIngestService.ingestCsv(new ClassPathResource("fashion-products.csv"));
 	}
 
 }
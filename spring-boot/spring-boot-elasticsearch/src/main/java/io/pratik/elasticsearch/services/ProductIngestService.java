@@ -0,0 +1,274 @@
+package io.pratik.elasticsearch.services;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.settings.Settings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.stereotype.Service;
+
+import io.pratik.elasticsearch.ingest.BulkIngestResult;
+import io.pratik.elasticsearch.ingest.CsvReader;
+import io.pratik.elasticsearch.models.Product;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Indexes products in bounded chunks with concurrent bulk requests. At most {@code concurrency}
+ * chunks are in flight, reading the input blocks until one of them is done. Documents rejected by
+ * a bulk request are retried on their own, with a growing delay. Cached search results are
+ * invalidated once all chunks are done.
+ */
+@Service
+@Slf4j
+public class ProductIngestService {
+
+	private static final String PRODUCT_INDEX = "productindex";
+	private static final String REFRESH_INTERVAL = "index.refresh_interval";
+
+	private final ElasticsearchOperations elasticsearchOperations;
+	private final RestHighLevelClient client;
+	private final SearchResultCache searchResultCache;
+	private final int chunkSize;
+	private final int maxRetries;
+	private final long retryBackoffMillis;
+	private final Semaphore inFlight;
+	private final ExecutorService executor;
+
+	public ProductIngestService(final ElasticsearchOperations elasticsearchOperations,
+			final RestHighLevelClient client,
+			final SearchResultCache searchResultCache,
+			@Value("${ingest.chunk-size:1000}") final int chunkSize,
+			@Value("${ingest.concurrency:4}") final int concurrency,
+			@Value("${ingest.max-retries:3}") final int maxRetries,
+			@Value("${ingest.retry-backoff-millis:200}") final long retryBackoffMillis) {
+		this.elasticsearchOperations = elasticsearchOperations;
+		this.client = client;
+		this.searchResultCache = searchResultCache;
+		this.chunkSize = chunkSize;
+		this.maxRetries = maxRetries;
+		this.retryBackoffMillis = retryBackoffMillis;
+		this.inFlight = new Semaphore(concurrency);
+		this.executor = Executors.newFixedThreadPool(concurrency);
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Streams the products of a CSV file with the columns name, description and manufacturer and a
+	 * header row into the index. Refresh is disabled while loading and the index is refreshed once at the end.
+	 */
+	public BulkIngestResult ingestCsv(final Resource csv) {
+		BulkIngestResult result;
+		setRefreshInterval("-1");
+		try (CsvReader reader = new CsvReader(new InputStreamReader(csv.getInputStream(), StandardCharsets.UTF_8))) {
+			result = ingest(reader);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read " + csv, e);
+		} finally {
+			setRefreshInterval(null);
+		}
+		elasticsearchOperations.indexOps(IndexCoordinates.of(PRODUCT_INDEX)).refresh();
+		searchResultCache.invalidateAll();
+		log.info("Ingested {}", result);
+		return result;
+	}
+
+	/**
+	 * Indexes the products of the records after the header row and returns when all chunks are done.
+	 */
+	BulkIngestResult ingest(final CsvReader reader) throws IOException {
+		long start = System.currentTimeMillis();
+		Run run = new Run(ids -> {});
+		long skippedRows = 0;
+
+		try {
+			List<String> fields = new ArrayList<>();
+			List<IndexQuery> chunk = new ArrayList<>(chunkSize);
+			reader.readRecord(fields); // header
+			while (reader.readRecord(fields)) {
+				if (fields.size() < 3) {
+					if (fields.size() > 1 || !fields.get(0).isEmpty()) {
+						log.warn("Skipping row {} with {} columns", reader.getRecordNumber(), fields.size());
+						skippedRows++;
+					}
+					continue;
+				}
+				chunk.add(indexQuery(Product.builder()
+						.name(fields.get(0))
+						.description(fields.get(1))
+						.manufacturer(fields.get(2))
+						.build()));
+				if (chunk.size() == chunkSize) {
+					submit(chunk, run);
+					chunk = new ArrayList<>(chunkSize);
+				}
+			}
+			if (!chunk.isEmpty()) {
+				submit(chunk, run);
+			}
+		} finally {
+			run.await();
+		}
+		return new BulkIngestResult(run.indexed.get(), run.failed.get(), skippedRows,
+				System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Indexes the products in chunks and returns the ids of the indexed documents. Products without
+	 * an id get a random one.
+	 */
+	public List<String> index(final List<Product> products) {
+		List<String> documentIds = Collections.synchronizedList(new ArrayList<>(products.size()));
+		Run run = new Run(documentIds::addAll);
+		for (int from = 0; from < products.size(); from += chunkSize) {
+			List<IndexQuery> chunk = products.subList(from, Math.min(from + chunkSize, products.size()))
+					.stream()
+					.map(this::indexQuery)
+					.collect(Collectors.toList());
+			submit(chunk, run);
+		}
+		run.await();
+		searchResultCache.invalidateAll();
+		if (run.failed.get() > 0) {
+			log.warn("{} of {} products could not be indexed", run.failed.get(), products.size());
+		}
+		return documentIds;
+	}
+
+	private IndexQuery indexQuery(final Product product) {
+		if (product.getId() == null) {
+			product.setId(UUID.randomUUID().toString());
+		}
+		return new IndexQueryBuilder().withId(product.getId()).withObject(product).build();
+	}
+
+	private void submit(final List<IndexQuery> chunk, final Run run) {
+		try {
+			inFlight.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a bulk request", e);
+		}
+		run.chunks.register();
+		try {
+			executor.execute(() -> {
+				try {
+					bulkIndex(chunk, run);
+				} finally {
+					inFlight.release();
+					run.chunks.arriveAndDeregister();
+				}
+			});
+		} catch (RuntimeException e) {
+			inFlight.release();
+			run.chunks.arriveAndDeregister();
+			throw e;
+		}
+	}
+
+	private void bulkIndex(List<IndexQuery> pending, final Run run) {
+		for (int attempt = 0;; attempt++) {
+			Set<String> failedIds;
+			try {
+				List<String> ids = elasticsearchOperations.bulkIndex(pending, IndexCoordinates.of(PRODUCT_INDEX));
+				run.indexed(ids);
+				return;
+			} catch (BulkFailureException e) {
+				failedIds = e.getFailedDocuments().keySet();
+				List<String> ids = pending.stream()
+						.map(IndexQuery::getId)
+						.filter(id -> !failedIds.contains(id))
+						.collect(Collectors.toList());
+				run.indexed(ids);
+				pending = pending.stream()
+						.filter(query -> failedIds.contains(query.getId()))
+						.collect(Collectors.toList());
+				if (pending.isEmpty()) {
+					// none of the reported failures belongs to this chunk
+					return;
+				}
+			} catch (RuntimeException e) {
+				log.warn("Bulk request of {} documents failed", pending.size(), e);
+			}
+			if (attempt == maxRetries) {
+				log.error("Giving up on {} documents after {} retries", pending.size(), maxRetries);
+				run.failed.addAndGet(pending.size());
+				return;
+			}
+			try {
+				Thread.sleep(retryBackoffMillis << attempt);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				run.failed.addAndGet(pending.size());
+				return;
+			}
+		}
+	}
+
+	private void setRefreshInterval(final String interval) {
+		Settings.Builder settings = Settings.builder();
+		if (interval == null) {
+			settings.putNull(REFRESH_INTERVAL);
+		} else {
+			settings.put(REFRESH_INTERVAL, interval);
+		}
+		try {
+			client.indices().putSettings(new UpdateSettingsRequest(PRODUCT_INDEX).settings(settings),
+					RequestOptions.DEFAULT);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not set the refresh interval of " + PRODUCT_INDEX, e);
+		}
+	}
+
+	/**
+	 * Chunks of one call that are still in flight, and their outcome.
+	 */
+	private static class Run {
+
+		private final Phaser chunks = new Phaser(1);
+		private final AtomicLong indexed = new AtomicLong();
+		private final AtomicLong failed = new AtomicLong();
+		private final Consumer<List<String>> documentIds;
+
+		Run(final Consumer<List<String>> documentIds) {
+			this.documentIds = documentIds;
+		}
+
+		void indexed(final List<String> ids) {
+			indexed.addAndGet(ids.size());
+			documentIds.accept(ids);
+		}
+
+		void await() {
+			chunks.arriveAndAwaitAdvance();
+		}
+	}
+}
@@ -4,8 +4,8 @@
 package io.pratik.elasticsearch.services;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.elasticsearch.common.unit.Fuzziness;
 import org.elasticsearch.index.query.QueryBuilder;
@@ -15,7 +15,6 @@ import org.elasticsearch.search.aggregations.AggregationBuilders;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
-import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
 import org.springframework.data.elasticsearch.core.query.Criteria;
@@ -39,59 +38,66 @@ public class ProductSearchService {
 
 	private static final String PRODUCT_INDEX = "productindex";
 
+	private static final IndexCoordinates PRODUCT_INDEX_COORDINATES = IndexCoordinates.of(PRODUCT_INDEX);
+
 	private ElasticsearchOperations elasticsearchOperations;
 
+	private ProductIngestService productIngestService;
+
+	private SearchResultCache searchResultCache;
+
 	@Autowired
-	public ProductSearchService(final ElasticsearchOperations elasticsearchOperations) {
+	public ProductSearchService(final ElasticsearchOperations elasticsearchOperations,
+			final ProductIngestService productIngestService,
+			final SearchResultCache searchResultCache) {
 		super();
 		this.elasticsearchOperations = elasticsearchOperations;
+		this.productIngestService = productIngestService;
+		this.searchResultCache = searchResultCache;
 	}
 
 	public List<String> createProductIndexBulk(final List<Product> products) {
 
-		List<IndexQuery> queries = products.stream()
-				.map(product -> new IndexQueryBuilder().withId(product.getId().toString()).withObject(product).build())
-				.collect(Collectors.toList());
-		;
-
-		return elasticsearchOperations.bulkIndex(queries, IndexCoordinates.of(PRODUCT_INDEX));
+		return productIngestService.index(products);
 
 	}
 
 	public String createProductIndex(Product product) {
 
 		IndexQuery indexQuery = new IndexQueryBuilder().withId(product.getId().toString()).withObject(product).build();
-		String documentId = elasticsearchOperations.index(indexQuery, IndexCoordinates.of(PRODUCT_INDEX));
+		String documentId = elasticsearchOperations.index(indexQuery, PRODUCT_INDEX_COORDINATES);
+		searchResultCache.invalidateAll();
 
 		return documentId;
 	}
 
-	public void findProductsByBrand(final String brandName) {
-		QueryBuilder queryBuilder = QueryBuilders
-				.matchQuery("manufacturer", brandName);
-		// .fuzziness(0.8)
-		// .boost(1.0f)
-		// .prefixLength(0)
-		// .fuzzyTranspositions(true);
-
-		Query searchQuery = new NativeSearchQueryBuilder()
-				.withQuery(queryBuilder)
-				.build();
-
-		SearchHits<Product> productHits = 
-				elasticsearchOperations
-				.search(searchQuery, Product.class,
-				  IndexCoordinates.of(PRODUCT_INDEX));
-
-		log.info("productHits {} {}", productHits.getSearchHits().size(), productHits.getSearchHits());
-
-		List<SearchHit<Product>> searchHits = 
-				productHits.getSearchHits();
-		int i = 0;
-		for (SearchHit<Product> searchHit : searchHits) {
-			log.info("searchHit {}", searchHit);
-		}
+	public List<Product> findProductsByBrand(final String brandName) {
+		final String brand = SearchResultCache.normalize(brandName);
+		List<Product> products = searchResultCache.get("brand", brand, () -> {
+			QueryBuilder queryBuilder = QueryBuilders
+					.matchQuery("manufacturer", brand);
+			// .fuzziness(0.8)
+			// .boost(1.0f)
+			// .prefixLength(0)
+			// .fuzzyTranspositions(true);
+
+			Query searchQuery = new NativeSearchQueryBuilder()
+					.withQuery(queryBuilder)
+					.build();
+
+			SearchHits<Product> productHits = 
+					elasticsearchOperations
+					.search(searchQuery, Product.class,
+					  PRODUCT_INDEX_COORDINATES);
+
+			log.info("productHits {} {}", productHits.getSearchHits().size(), productHits.getSearchHits());
+			return toProducts(productHits);
+		});
 
+		for (Product product : products) {
+			log.info("product {}", product);
+		}
+		return products;
 	}
 
 	public void findByProductName(final String productName) {
@@ -99,7 +105,7 @@ public class ProductSearchService {
 				"{\"match\":{\"name\":{\"query\":\""+ productName + "\"}}}\"");
 
 		SearchHits<Product> products = elasticsearchOperations.search(searchQuery, Product.class,
-				IndexCoordinates.of(PRODUCT_INDEX));
+				PRODUCT_INDEX_COORDINATES);
 	}
 
 	public void findByProductPrice(final String productPrice) {
@@ -107,59 +113,74 @@ public class ProductSearchService {
 		Query searchQuery = new CriteriaQuery(criteria);
 
 		SearchHits<Product> products = elasticsearchOperations.search(searchQuery, Product.class,
-				IndexCoordinates.of(PRODUCT_INDEX));
+				PRODUCT_INDEX_COORDINATES);
 	}
 
 	public List<Product> processSearch(final String query) {
 		log.info("Search with query {}", query);
-		
-		// 1. Create query on multiple fields enabling fuzzy search
-		QueryBuilder queryBuilder = 
-				QueryBuilders
-				.multiMatchQuery(query, "name", "description")
-				.fuzziness(Fuzziness.AUTO);
-
-		Query searchQuery = new NativeSearchQueryBuilder()
-				                .withFilter(queryBuilder)
-				                .build();
-
-		// 2. Execute search
-		SearchHits<Product> productHits = 
-				elasticsearchOperations
-				.search(searchQuery, Product.class,
-				IndexCoordinates.of(PRODUCT_INDEX));
-
-		// 3. Map searchHits to product list
-		List<Product> productMatches = new ArrayList<Product>();
-		productHits.forEach(srchHit->{
-			productMatches.add(srchHit.getContent());
+		final String text = SearchResultCache.normalizeIgnoringCase(query);
+
+		return searchResultCache.get("search", text, () -> {
+			// 1. Create query on multiple fields enabling fuzzy search
+			QueryBuilder queryBuilder = 
+					QueryBuilders
+					.multiMatchQuery(text, "name", "description")
+					.fuzziness(Fuzziness.AUTO);
+
+			Query searchQuery = new NativeSearchQueryBuilder()
+					                .withFilter(queryBuilder)
+					                .build();
+
+			// 2. Execute search
+			SearchHits<Product> productHits = 
+					elasticsearchOperations
+					.search(searchQuery, Product.class,
+					PRODUCT_INDEX_COORDINATES);
+
+			// 3. Map searchHits to product list
+			return toProducts(productHits);
 		});
-		return productMatches;
 	}
 
 	
 
 	
 	public List<String> fetchSuggestions(String query) {
-		QueryBuilder queryBuilder = QueryBuilders
-				.wildcardQuery("name", query+"*");
-
-		Query searchQuery = new NativeSearchQueryBuilder()
-				.withFilter(queryBuilder)
-				.withPageable(PageRequest.of(0, 5))
-				.build();
-
-		SearchHits<Product> searchSuggestions = 
-				elasticsearchOperations.search(searchQuery, 
-						Product.class,
-				IndexCoordinates.of(PRODUCT_INDEX));
-		
-		List<String> suggestions = new ArrayList<String>();
-		
-		searchSuggestions.getSearchHits().forEach(searchHit->{
-			suggestions.add(searchHit.getContent().getName());
+		final String prefix = SearchResultCache.normalizeIgnoringCase(query);
+
+		return searchResultCache.get("suggestions", prefix, () -> {
+			QueryBuilder queryBuilder = QueryBuilders
+					.wildcardQuery("name", prefix+"*");
+
+			Query searchQuery = new NativeSearchQueryBuilder()
+					.withFilter(queryBuilder)
+					.withPageable(PageRequest.of(0, 5))
+					.build();
+
+			SearchHits<Product> searchSuggestions = 
+					elasticsearchOperations.search(searchQuery, 
+							Product.class,
+					PRODUCT_INDEX_COORDINATES);
+			
+			List<String> suggestions = new ArrayList<String>();
+			
+			searchSuggestions.getSearchHits().forEach(searchHit->{
+				suggestions.add(searchHit.getContent().getName());
+			});
+			return Collections.unmodifiableList(suggestions);
+		});
+	}
+
+	public SearchCacheStats getSearchCacheStats() {
+		return searchResultCache.getStats();
+	}
+
+	private static List<Product> toProducts(final SearchHits<Product> productHits) {
+		List<Product> productMatches = new ArrayList<Product>();
+		productHits.forEach(srchHit->{
+			productMatches.add(srchHit.getContent());
 		});
-		return suggestions;
+		return Collections.unmodifiableList(productMatches);
 	}
 
 }
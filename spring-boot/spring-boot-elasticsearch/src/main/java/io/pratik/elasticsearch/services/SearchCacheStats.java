@@ -0,0 +1,25 @@
+package io.pratik.elasticsearch.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Hit and miss counts of the {@link SearchResultCache} since startup.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class SearchCacheStats {
+
+	private final long hitCount;
+
+	private final long missCount;
+
+	private final double hitRatio;
+
+	private final long evictionCount;
+
+	private final long size;
+
+}
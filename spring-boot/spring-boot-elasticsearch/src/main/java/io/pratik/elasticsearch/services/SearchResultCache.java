@@ -0,0 +1,107 @@
+package io.pratik.elasticsearch.services;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Short-lived, size-bounded cache of search results, keyed by search type and normalized query text.
+ * Concurrent misses on the same key run the search once.
+ *
+ * <p>Writes to the index call {@link #invalidateAll()}. Every entry belongs to a generation that
+ * is part of its key, so a search that was started before the invalidation cannot put its stale
+ * result into the current generation.
+ */
+@Component
+@Slf4j
+public class SearchResultCache {
+
+	private final Cache<Key, Object> cache;
+	private final AtomicLong generation = new AtomicLong();
+
+	public SearchResultCache(@Value("${search.cache.ttl-seconds:5}") final long ttlSeconds,
+			@Value("${search.cache.maximum-size:10000}") final long maximumSize) {
+		this.cache = Caffeine.newBuilder()
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.maximumSize(maximumSize)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Trims the query and collapses whitespace, {@code null} becomes an empty string.
+	 */
+	public static String normalize(final String query) {
+		return query == null ? "" : query.trim().replaceAll("\\s+", " ");
+	}
+
+	/**
+	 * Like {@link #normalize(String)}, and lower-cases the query, for fields that are analyzed.
+	 */
+	public static String normalizeIgnoringCase(final String query) {
+		return normalize(query).toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Returns the cached result of the search, or runs it and caches the result.
+	 *
+	 * @param type            kind of search, results of different kinds never share an entry.
+	 * @param normalizedQuery the query text, already normalized by the caller.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(final String type, final String normalizedQuery, final Supplier<T> search) {
+		return (T) cache.get(new Key(generation.get(), type, normalizedQuery), key -> search.get());
+	}
+
+	public void invalidateAll() {
+		generation.incrementAndGet();
+		cache.invalidateAll();
+	}
+
+	public SearchCacheStats getStats() {
+		CacheStats stats = cache.stats();
+		return new SearchCacheStats(stats.hitCount(), stats.missCount(), stats.hitRate(),
+				stats.evictionCount(), cache.estimatedSize());
+	}
+
+	private static final class Key {
+
+		private final long generation;
+		private final String type;
+		private final String query;
+
+		Key(final long generation, final String type, final String query) {
+			this.generation = generation;
+			this.type = type;
+			this.query = query;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return generation == other.generation && type.equals(other.type) && query.equals(other.query);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(generation, type, query);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package io.pratik.elasticsearch.ingest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+
+	@Test
+	void testReadRecords() throws Exception {
+		String csv = "product_name,description,manufacturer\r\n"
+				+ "Train,\"Big, \"\"classic\"\" train\nwith lights\",ccf\n"
+				+ "Car,,toys\n";
+		List<String> fields = new ArrayList<>();
+
+		try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+			assertTrue(reader.readRecord(fields));
+			assertEquals(Arrays.asList("product_name", "description", "manufacturer"), fields);
+
+			assertTrue(reader.readRecord(fields));
+			assertEquals(Arrays.asList("Train", "Big, \"classic\" train\nwith lights", "ccf"), fields);
+
+			assertTrue(reader.readRecord(fields));
+			assertEquals(Arrays.asList("Car", "", "toys"), fields);
+			assertEquals(3, reader.getRecordNumber());
+
+			assertFalse(reader.readRecord(fields));
+		}
+	}
+
+	@Test
+	void testReadLastRecordWithoutLineBreak() throws Exception {
+		List<String> fields = new ArrayList<>();
+
+		try (CsvReader reader = new CsvReader(new StringReader("a,\"b\""))) {
+			assertTrue(reader.readRecord(fields));
+			assertEquals(Arrays.asList("a", "b"), fields);
+			assertFalse(reader.readRecord(fields));
+		}
+	}
+
+	@Test
+	void testReadFashionProducts() throws Exception {
+		List<String> fields = new ArrayList<>();
+		int products = 0;
+
+		try (CsvReader reader = new CsvReader(new InputStreamReader(
+				getClass().getResourceAsStream("/fashion-products.csv"), StandardCharsets.UTF_8))) {
+			reader.readRecord(fields);
+			while (reader.readRecord(fields)) {
+				assertEquals(3, fields.size());
+				products++;
+			}
+		}
+		assertEquals(748, products);
+	}
+}
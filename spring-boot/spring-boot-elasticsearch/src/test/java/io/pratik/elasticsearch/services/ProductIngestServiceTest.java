@@ -0,0 +1,127 @@
+package io.pratik.elasticsearch.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+
+import io.pratik.elasticsearch.ingest.BulkIngestResult;
+import io.pratik.elasticsearch.ingest.CsvReader;
+import io.pratik.elasticsearch.models.Product;
+
+class ProductIngestServiceTest {
+
+	private static final int MAX_RETRIES = 2;
+
+	private final ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+	// the product names of each bulk request
+	private final List<List<String>> bulkRequests = Collections.synchronizedList(new ArrayList<>());
+	private final ProductIngestService service = new ProductIngestService(elasticsearchOperations, null,
+			new SearchResultCache(60, 100), 10, 2, MAX_RETRIES, 1);
+
+	@AfterEach
+	void shutdown() {
+		service.shutdown();
+	}
+
+	@Test
+	void testOnlyFailedDocumentsAreResent() {
+		// the ids and names of the products are the same, b and d are rejected by the first request only
+		rejectOnce("b", "d");
+
+		List<String> indexed = service.index(products("a", "b", "c", "d", "e"));
+
+		assertEquals(Arrays.asList(Arrays.asList("a", "b", "c", "d", "e"), Arrays.asList("b", "d")), bulkRequests);
+		assertEquals(Set.of("a", "b", "c", "d", "e"), Set.copyOf(indexed));
+	}
+
+	@Test
+	void testDocumentsAreCountedAsFailedAfterMaxRetries() throws Exception {
+		rejectAlways("b", "d");
+		String csv = "name,description,manufacturer\n" + "a,shirt,acme\n" + "b,shoe,acme\n" + "c,hat,acme\n"
+				+ "d,belt,acme\n" + "e,sock,acme\n";
+
+		BulkIngestResult result = service.ingest(new CsvReader(new StringReader(csv)));
+
+		assertEquals(3, result.getIndexed());
+		assertEquals(2, result.getFailed());
+		// the first request, then one request per retry with the rejected documents only
+		assertEquals(1 + MAX_RETRIES, bulkRequests.size());
+		for (List<String> retry : bulkRequests.subList(1, bulkRequests.size())) {
+			assertEquals(Arrays.asList("b", "d"), retry);
+		}
+	}
+
+	@Test
+	void testFailuresOfOtherDocumentsEndTheRetries() {
+		when(elasticsearchOperations.bulkIndex(any(), any(IndexCoordinates.class))).thenAnswer(invocation -> {
+			bulkRequests.add(names(invocation.getArgument(0)));
+			throw new BulkFailureException("bulk failed", Map.of("unknown", "rejected"));
+		});
+
+		List<String> indexed = service.index(products("a", "b"));
+
+		assertEquals(1, bulkRequests.size());
+		assertEquals(Set.of("a", "b"), Set.copyOf(indexed));
+	}
+
+	private void rejectOnce(String... rejected) {
+		when(elasticsearchOperations.bulkIndex(any(), any(IndexCoordinates.class))).thenAnswer(invocation -> {
+			List<String> names = names(invocation.getArgument(0));
+			bulkRequests.add(names);
+			if (bulkRequests.size() == 1) {
+				throw failure(Arrays.asList(rejected));
+			}
+			return names;
+		});
+	}
+
+	private void rejectAlways(String... rejectedNames) {
+		when(elasticsearchOperations.bulkIndex(any(), any(IndexCoordinates.class))).thenAnswer(invocation -> {
+			List<IndexQuery> queries = invocation.getArgument(0);
+			bulkRequests.add(names(queries));
+			List<String> failedIds = queries.stream()
+					.filter(query -> Arrays.asList(rejectedNames).contains(((Product) query.getObject()).getName()))
+					.map(IndexQuery::getId)
+					.collect(Collectors.toList());
+			if (!failedIds.isEmpty()) {
+				throw failure(failedIds);
+			}
+			return names(queries);
+		});
+	}
+
+	/**
+	 * A bulk failure for the documents with the ids.
+	 */
+	private static BulkFailureException failure(List<String> ids) {
+		return new BulkFailureException("bulk failed",
+				ids.stream().collect(Collectors.toMap(Function.identity(), id -> "rejected")));
+	}
+
+	private static List<String> names(List<IndexQuery> queries) {
+		return queries.stream().map(query -> ((Product) query.getObject()).getName()).collect(Collectors.toList());
+	}
+
+	private static List<Product> products(String... ids) {
+		return Arrays.stream(ids)
+				.map(id -> Product.builder().id(id).name(id).build())
+				.collect(Collectors.toList());
+	}
+}
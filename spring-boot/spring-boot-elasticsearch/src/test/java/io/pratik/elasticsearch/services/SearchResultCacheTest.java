@@ -0,0 +1,67 @@
+package io.pratik.elasticsearch.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SearchResultCacheTest {
+
+	private final SearchResultCache cache = new SearchResultCache(60, 100);
+
+	@Test
+	void testRepeatedQueryIsServedFromCache() {
+		AtomicInteger searches = new AtomicInteger();
+
+		for (String query : Arrays.asList("white shirt", "  White   SHIRT ", "white shirt")) {
+			List<String> result = cache.get("suggestions", SearchResultCache.normalizeIgnoringCase(query), () -> {
+				searches.incrementAndGet();
+				return Arrays.asList("White Shirt");
+			});
+			assertEquals(Arrays.asList("White Shirt"), result);
+		}
+
+		assertEquals(1, searches.get());
+		SearchCacheStats stats = cache.getStats();
+		assertEquals(2, stats.getHitCount());
+		assertEquals(1, stats.getMissCount());
+		assertEquals(2.0 / 3, stats.getHitRatio(), 0.001);
+	}
+
+	@Test
+	void testSearchTypesDoNotShareEntries() {
+		cache.get("brand", "samsung", () -> "brand");
+
+		assertEquals("search", cache.get("search", "samsung", () -> "search"));
+	}
+
+	@Test
+	void testInvalidateAllDropsResults() {
+		cache.get("search", "toy", () -> "before");
+
+		cache.invalidateAll();
+
+		assertEquals("after", cache.get("search", "toy", () -> "after"));
+	}
+
+	@Test
+	void testResultOfSearchStartedBeforeInvalidationIsNotReturned() {
+		cache.get("search", "toy", () -> {
+			// an index write while the search is running
+			cache.invalidateAll();
+			return "stale";
+		});
+
+		assertEquals("fresh", cache.get("search", "toy", () -> "fresh"));
+	}
+
+	@Test
+	void testNormalize() {
+		assertEquals("Samsung Galaxy", SearchResultCache.normalize(" Samsung \t Galaxy "));
+		assertEquals("samsung galaxy", SearchResultCache.normalizeIgnoringCase(" Samsung \t Galaxy "));
+		assertEquals("", SearchResultCache.normalize(null));
+	}
+}